@@ -1,5 +1,10 @@
 package DIP.Fixed_Code;
 
+import metrics.Metrics;
+import metrics.Timer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -23,7 +28,14 @@ public class Application {
 
     public void userProcess(String username){
         for (Logger logger : loggers) {
-            logger.log("User processed: "+username);
+            logger.log(username, "User processed: "+username);
+        }
+    }
+
+    // Call before exit: buffering loggers (FileLog with a LogStore) may still hold records in memory
+    public void flush(){
+        for (Logger logger : loggers) {
+            logger.flush();
         }
     }
 
@@ -54,6 +66,10 @@ public class Application {
         devApp.userProcess("dev_user");
         alertApp.userProcess("alert_user");
 
+        productionApp.flush();
+        devApp.flush();
+        alertApp.flush();
+
         // Testing is easy - use mock loggers
         List<Logger> testLoggers = Arrays.asList(new ConsoleLog());
         Application testApp = new Application(testLoggers);
@@ -64,11 +80,52 @@ public class Application {
 
 interface Logger{
     public void log(String message);
+    // Loggers that index by user (FileLog with a LogStore) override this one
+    default public void log(String username, String message){
+        log(message);
+    }
+    // Writes out anything buffered; most loggers write straight away
+    default public void flush(){
+    }
 }
 
 class FileLog implements Logger{
+    private final LogStore store;
+
+    FileLog(){
+        this(null);
+    }
+
+    // Persist to compressed, indexed segments instead of only printing
+    FileLog(LogStore store){
+        this.store = store;
+    }
+
     public void log(String message){
-        System.out.println("Writing to File : "+message);
+        log("", message);
+    }
+
+    public void log(String username, String message){
+        if (store == null) {
+            System.out.println("Writing to File : "+message);
+            return;
+        }
+        try {
+            // wall clock can step back, the store needs time order
+            store.append(Math.max(System.currentTimeMillis(), store.lastTime()), username, message);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Records in the store's current block are only in memory until this (or the store's close)
+    public void flush(){
+        if (store == null) return;
+        try {
+            store.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 }
 
@@ -83,3 +140,30 @@ class ConsoleLog implements Logger{
         System.out.println("Writing to Console : "+message);
     }
 }
+
+// Decorator: times any Logger, e.g. new MeteredLogger(new FileLog())
+class MeteredLogger implements Logger{
+    private final Logger logger;
+    private final Timer timer;
+
+    MeteredLogger(Logger logger){
+        this.logger = logger;
+        this.timer = Metrics.timer("logger." + logger.getClass().getSimpleName() + ".log");
+    }
+
+    public void log(String message){
+        long start = timer.start();
+        logger.log(message);
+        timer.stop(start);
+    }
+
+    public void log(String username, String message){
+        long start = timer.start();
+        logger.log(username, message);
+        timer.stop(start);
+    }
+
+    public void flush(){
+        logger.flush();
+    }
+}
@@ -0,0 +1,40 @@
+package DIP.Fixed_Code;
+
+import benchmark.Bench;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Application.userProcess fan-out to 1, 3 and 10 loggers, and 3 loggers wrapped in MeteredLogger.
+public class ApplicationBenchmark {
+
+    static Application withLoggers(int count) {
+        List<Logger> loggers = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            switch (i % 3) {
+                case 0: loggers.add(new FileLog()); break;
+                case 1: loggers.add(new DBLog()); break;
+                default: loggers.add(new ConsoleLog()); break;
+            }
+        }
+        return new Application(loggers);
+    }
+
+    public static void main(String[] args) {
+        Bench.header("DIP Application.userProcess");
+        for (int count : new int[]{1, 3, 10}) {
+            Application app = withLoggers(count);
+            Bench.run("userProcess, " + count + " loggers", 200_000, () -> {
+                app.userProcess("bench_user");
+                return 1;
+            });
+        }
+        List<Logger> metered = new ArrayList<>();
+        for (Logger logger : withLoggers(3).loggers) metered.add(new MeteredLogger(logger));
+        Application meteredApp = new Application(metered);
+        Bench.run("userProcess, 3 metered loggers", 200_000, () -> {
+            meteredApp.userProcess("bench_user");
+            return 1;
+        });
+    }
+}
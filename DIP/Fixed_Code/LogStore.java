@@ -0,0 +1,497 @@
+package DIP.Fixed_Code;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Where FileLog persists log lines: a directory of segment files, each made of compressed blocks.
+ *
+ * segment-N.log : blocks of records (time, username, message), each block compressed on its own and
+ *                 framed by its lengths and a CRC32, so the file can be scanned without its .idx
+ * segment-N.idx : per block its offset, time range and a bloom filter of usernames, plus the same for
+ *                 the whole segment; rewritten on flush() and when the segment is closed
+ *
+ * A query ("user X between t1 and t2") first skips whole segments, then blocks, by time range and
+ * bloom filter, and only decompresses the blocks that may match.
+ * On open, blocks a .idx does not cover (process killed before close, or no .idx at all) are recovered
+ * by scanning the .log, and a torn last block is cut off. Segment numbers are never reused.
+ * Records must be appended in time order. Single-threaded.
+ */
+public class LogStore implements Closeable {
+
+    static final int BLOCK_SIZE = 64 * 1024;        // raw bytes per block
+    static final int BLOCKS_PER_SEGMENT = 1024;     // ~64 MB raw per segment
+    static final int BLOCK_BLOOM_BITS = 16 * 1024;  // ~1000 records per block, keeps false positives < 1%
+    static final int SEGMENT_BLOOM_BITS = 1 << 20;
+    static final int BLOCK_HEADER = 12;             // compressed length, raw length, CRC32 of both + data
+
+    static class LogRecord {
+        final long time;
+        final String username;
+        final String message;
+
+        LogRecord(long time, String username, String message) {
+            this.time = time;
+            this.username = username;
+            this.message = message;
+        }
+
+        public String toString() {
+            return time + " [" + username + "] " + message;
+        }
+    }
+
+    // Per block / per segment metadata kept in memory and in the .idx file
+    static class Block {
+        long offset; // of the block header in the .log
+        int compressedLength;
+        int rawLength;
+        long minTime = Long.MAX_VALUE;
+        long maxTime = Long.MIN_VALUE;
+        BloomFilter usernames = new BloomFilter(BLOCK_BLOOM_BITS);
+
+        boolean mayMatch(String username, long from, long to) {
+            return maxTime >= from && minTime <= to && (username == null || usernames.mightContain(username));
+        }
+
+        long end() {
+            return offset + BLOCK_HEADER + compressedLength;
+        }
+    }
+
+    static class Segment {
+        final Path logFile;
+        final List<Block> blocks = new ArrayList<>();
+        long minTime = Long.MAX_VALUE;
+        long maxTime = Long.MIN_VALUE;
+        BloomFilter usernames = new BloomFilter(SEGMENT_BLOOM_BITS);
+
+        Segment(Path logFile) {
+            this.logFile = logFile;
+        }
+
+        boolean mayMatch(String username, long from, long to) {
+            return maxTime >= from && minTime <= to && (username == null || usernames.mightContain(username));
+        }
+    }
+
+    private final Path directory;
+    private final List<Segment> closed = new ArrayList<>();
+    private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+    private final Inflater inflater = new Inflater();
+    private final CRC32 crc = new CRC32();
+
+    // current segment and block being written
+    private Segment segment;
+    private RandomAccessFile segmentFile;
+    private long segmentEnd; // end of the last complete block, a failed write is retried from here
+    private Block block;
+    private final ByteArrayOutputStream blockBytes = new ByteArrayOutputStream(BLOCK_SIZE + 1024);
+    private final DataOutputStream blockOut = new DataOutputStream(blockBytes);
+    private byte[] compressBuffer = new byte[BLOCK_SIZE * 2];
+    private int nextSegment;
+    private long lastTime = Long.MIN_VALUE;
+
+    public LogStore(Path directory) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        List<Path> logs = new ArrayList<>();
+        List<Path> temps = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "segment-*")) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                if (name.endsWith(".tmp")) {
+                    temps.add(file); // writeIndex cut short, the .idx it was replacing is still whole
+                    continue;
+                }
+                nextSegment = Math.max(nextSegment, segmentNumber(file) + 1);
+                if (name.endsWith(".log")) logs.add(file);
+            }
+        }
+        for (Path temp : temps) Files.delete(temp);
+        logs.sort(null);
+        for (Path log : logs) {
+            Segment loaded = recover(log);
+            if (loaded.blocks.isEmpty()) { // killed before its first block was written
+                Files.deleteIfExists(indexFile(log));
+                Files.delete(log);
+                continue;
+            }
+            closed.add(loaded);
+            lastTime = Math.max(lastTime, loaded.maxTime);
+        }
+    }
+
+    // Record layout: time, then username and message each as int length + UTF-8 bytes (no 64 KB limit)
+    public void append(long time, String username, String message) throws IOException {
+        if (time < lastTime) throw new IllegalArgumentException("Log time " + time + " is before " + lastTime);
+        // encode before touching any state, a rejected record must leave nothing behind
+        byte[] user = Objects.requireNonNull(username, "username").getBytes(StandardCharsets.UTF_8);
+        byte[] text = Objects.requireNonNull(message, "message").getBytes(StandardCharsets.UTF_8);
+        if (block == null) {
+            if (segment != null && segment.blocks.size() >= BLOCKS_PER_SEGMENT) closeSegment();
+            if (segment == null) openSegment();
+            block = new Block();
+        }
+
+        blockOut.writeLong(time);
+        blockOut.writeInt(user.length);
+        blockOut.write(user);
+        blockOut.writeInt(text.length);
+        blockOut.write(text);
+        lastTime = time;
+        block.minTime = Math.min(block.minTime, time);
+        block.maxTime = time;
+        block.usernames.add(username);
+
+        if (blockBytes.size() >= BLOCK_SIZE) writeBlock();
+    }
+
+    public long lastTime() {
+        return lastTime;
+    }
+
+    // Records of username (null = any user) with from <= time <= to, in time order
+    public List<LogRecord> query(String username, long from, long to) throws IOException {
+        List<LogRecord> result = new ArrayList<>();
+        List<Segment> segments = new ArrayList<>(closed);
+        if (segment != null) segments.add(segment);
+        for (Segment s : segments) {
+            if (!s.blocks.isEmpty() && s.mayMatch(username, from, to)) {
+                try (RandomAccessFile file = new RandomAccessFile(s.logFile.toFile(), "r")) {
+                    for (Block b : s.blocks) {
+                        if (b.mayMatch(username, from, to)) scan(read(file, b), username, from, to, result);
+                    }
+                }
+            }
+        }
+        // block still in memory
+        if (block != null && block.mayMatch(username, from, to)) {
+            scan(blockBytes.toByteArray(), username, from, to, result);
+        }
+        return result;
+    }
+
+    // Compresses and writes the pending block and refreshes the segment's .idx, so a killed process
+    // loses nothing appended before its last flush()
+    public void flush() throws IOException {
+        if (block != null) writeBlock();
+        if (segment != null) writeIndex(segment);
+    }
+
+    public void close() throws IOException {
+        closeSegment();
+        deflater.end();
+        inflater.end();
+    }
+
+    // ---- writing ----
+
+    private void openSegment() throws IOException {
+        Path logFile = directory.resolve(String.format("segment-%06d.log", nextSegment++));
+        Files.createFile(logFile); // fails rather than truncating a segment that is already there
+        segment = new Segment(logFile);
+        segmentFile = new RandomAccessFile(logFile.toFile(), "rw");
+        segmentEnd = 0;
+    }
+
+    private void writeBlock() throws IOException {
+        byte[] raw = blockBytes.toByteArray();
+        deflater.reset();
+        deflater.setInput(raw);
+        deflater.finish();
+        int length = 0;
+        while (true) {
+            length += deflater.deflate(compressBuffer, BLOCK_HEADER + length, compressBuffer.length - BLOCK_HEADER - length);
+            if (deflater.finished()) break;
+            compressBuffer = Arrays.copyOf(compressBuffer, compressBuffer.length * 2); // oversized record
+        }
+        ByteBuffer header = ByteBuffer.wrap(compressBuffer);
+        header.putInt(0, length).putInt(4, raw.length).putInt(8, checksum(compressBuffer, BLOCK_HEADER, length));
+
+        block.offset = segmentEnd;
+        block.compressedLength = length;
+        block.rawLength = raw.length;
+        segmentFile.seek(block.offset);
+        segmentFile.write(compressBuffer, 0, BLOCK_HEADER + length);
+        segmentEnd = block.end();
+
+        addBlock(segment, block, raw);
+        block = null;
+        blockBytes.reset();
+    }
+
+    // CRC32 of the two lengths at the start of buffer plus the compressed data that follows them
+    private int checksum(byte[] buffer, int dataOffset, int dataLength) {
+        crc.reset();
+        crc.update(buffer, 0, 8);
+        crc.update(buffer, dataOffset, dataLength);
+        return (int) crc.getValue();
+    }
+
+    private static void addBlock(Segment s, Block b, byte[] raw) throws IOException {
+        s.blocks.add(b);
+        s.minTime = Math.min(s.minTime, b.minTime);
+        s.maxTime = Math.max(s.maxTime, b.maxTime);
+        s.usernames.addAll(scanUsernames(raw));
+    }
+
+    // Usernames of a raw block, to fill the segment bloom filter (its size differs from the block one)
+    private static List<String> scanUsernames(byte[] raw) throws IOException {
+        List<String> names = new ArrayList<>();
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(raw));
+        String previous = null;
+        while (in.available() > 0) {
+            in.readLong();
+            String username = readString(in);
+            in.skipNBytes(in.readInt());
+            if (!username.equals(previous)) names.add(username);
+            previous = username;
+        }
+        return names;
+    }
+
+    private void closeSegment() throws IOException {
+        if (segment == null) return;
+        if (block != null) writeBlock();
+        segmentFile.close();
+        writeIndex(segment);
+        closed.add(segment);
+        segment = null;
+        segmentFile = null;
+    }
+
+    // Written aside and moved over the old one, a reader never sees half an index
+    private static void writeIndex(Segment s) throws IOException {
+        Path index = indexFile(s.logFile);
+        Path temp = index.resolveSibling(index.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeLong(s.minTime);
+            out.writeLong(s.maxTime);
+            s.usernames.writeTo(out);
+            out.writeInt(s.blocks.size());
+            for (Block b : s.blocks) {
+                out.writeLong(b.offset);
+                out.writeInt(b.compressedLength);
+                out.writeInt(b.rawLength);
+                out.writeLong(b.minTime);
+                out.writeLong(b.maxTime);
+                b.usernames.writeTo(out);
+            }
+        }
+        Files.move(temp, index, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // ---- opening ----
+
+    // Segment of an existing .log: its .idx, plus any complete blocks written after that .idx
+    private Segment recover(Path log) throws IOException {
+        Path index = indexFile(log);
+        Segment s = null;
+        if (Files.exists(index)) {
+            try {
+                s = readIndex(index);
+            } catch (IOException e) {
+                s = null; // unreadable, rebuilt from the .log below
+            }
+        }
+        try (RandomAccessFile file = new RandomAccessFile(log.toFile(), "rw")) {
+            long end = s == null || s.blocks.isEmpty() ? 0 : s.blocks.get(s.blocks.size() - 1).end();
+            if (s == null || end > file.length()) {
+                s = new Segment(log);
+                end = 0;
+            }
+            int indexed = s.blocks.size();
+            Block b;
+            while ((b = recoverBlock(s, file, end)) != null) {
+                end = b.end();
+            }
+            if (file.length() > end) file.setLength(end); // torn block of a write cut short
+            if (!s.blocks.isEmpty() && (s.blocks.size() > indexed || !Files.exists(index))) writeIndex(s);
+        }
+        return s;
+    }
+
+    // Adds the complete block at offset to s, its metadata rebuilt from its records; null if it is torn
+    private Block recoverBlock(Segment s, RandomAccessFile file, long offset) throws IOException {
+        if (offset + BLOCK_HEADER > file.length()) return null;
+        byte[] header = new byte[BLOCK_HEADER];
+        file.seek(offset);
+        file.readFully(header);
+        ByteBuffer fields = ByteBuffer.wrap(header);
+        int compressedLength = fields.getInt(0);
+        int rawLength = fields.getInt(4);
+        if (compressedLength < 0 || rawLength < 0 || offset + BLOCK_HEADER + compressedLength > file.length()) return null;
+        byte[] framed = Arrays.copyOf(header, BLOCK_HEADER + compressedLength);
+        file.readFully(framed, BLOCK_HEADER, compressedLength);
+        if (checksum(framed, BLOCK_HEADER, compressedLength) != fields.getInt(8)) return null;
+
+        Block b = new Block();
+        b.offset = offset;
+        b.compressedLength = compressedLength;
+        b.rawLength = rawLength;
+        byte[] raw = read(file, b);
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(raw));
+        while (in.available() > 0) {
+            long time = in.readLong();
+            b.usernames.add(readString(in));
+            in.skipNBytes(in.readInt());
+            b.minTime = Math.min(b.minTime, time);
+            b.maxTime = time;
+        }
+        addBlock(s, b, raw);
+        return b;
+    }
+
+    // ---- reading ----
+
+    private Segment readIndex(Path index) throws IOException {
+        Segment s = new Segment(logFile(index));
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(index)))) {
+            s.minTime = in.readLong();
+            s.maxTime = in.readLong();
+            s.usernames = BloomFilter.readFrom(in);
+            int blocks = in.readInt();
+            for (int i = 0; i < blocks; i++) {
+                Block b = new Block();
+                b.offset = in.readLong();
+                b.compressedLength = in.readInt();
+                b.rawLength = in.readInt();
+                b.minTime = in.readLong();
+                b.maxTime = in.readLong();
+                b.usernames = BloomFilter.readFrom(in);
+                s.blocks.add(b);
+            }
+        }
+        return s;
+    }
+
+    private byte[] read(RandomAccessFile file, Block b) throws IOException {
+        byte[] compressed = new byte[b.compressedLength];
+        file.seek(b.offset + BLOCK_HEADER);
+        file.readFully(compressed);
+        byte[] raw = new byte[b.rawLength];
+        inflater.reset();
+        inflater.setInput(compressed);
+        try {
+            if (inflater.inflate(raw) != b.rawLength) throw new IOException("Corrupt block at " + b.offset + " in " + file);
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupt block at " + b.offset, e);
+        }
+        return raw;
+    }
+
+    private static void scan(byte[] raw, String username, long from, long to, List<LogRecord> result) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(raw));
+        while (in.available() > 0) {
+            long time = in.readLong();
+            if (time > to) return;
+            String user = readString(in);
+            if (time >= from && (username == null || username.equals(user))) {
+                result.add(new LogRecord(time, user, readString(in)));
+            } else {
+                in.skipNBytes(in.readInt()); // message not needed
+            }
+        }
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static Path indexFile(Path logFile) {
+        String name = logFile.getFileName().toString();
+        return logFile.resolveSibling(name.substring(0, name.length() - 4) + ".idx");
+    }
+
+    private static Path logFile(Path indexFile) {
+        String name = indexFile.getFileName().toString();
+        return indexFile.resolveSibling(name.substring(0, name.length() - 4) + ".log");
+    }
+
+    // segment-000042.log or .idx -> 42
+    private static int segmentNumber(Path file) {
+        String name = file.getFileName().toString();
+        return Integer.parseInt(name.substring("segment-".length(), name.indexOf('.')));
+    }
+}
+
+// Fixed size bloom filter, 3 probes derived from two hashes of the string
+class BloomFilter {
+    private final long[] bits;
+    private final int mask;
+
+    BloomFilter(int bitCount) {
+        bits = new long[bitCount / 64];
+        mask = bitCount - 1; // bitCount must be a power of two
+    }
+
+    private BloomFilter(long[] bits) {
+        this.bits = bits;
+        this.mask = bits.length * 64 - 1;
+    }
+
+    void add(String value) {
+        int h1 = value.hashCode();
+        int h2 = mix(h1);
+        for (int i = 0; i < 3; i++) {
+            int bit = (h1 + i * h2) & mask;
+            bits[bit >>> 6] |= 1L << bit;
+        }
+    }
+
+    void addAll(List<String> values) {
+        for (String value : values) add(value);
+    }
+
+    boolean mightContain(String value) {
+        int h1 = value.hashCode();
+        int h2 = mix(h1);
+        for (int i = 0; i < 3; i++) {
+            int bit = (h1 + i * h2) & mask;
+            if ((bits[bit >>> 6] & (1L << bit)) == 0) return false;
+        }
+        return true;
+    }
+
+    private static int mix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        return (h ^ (h >>> 16)) | 1;
+    }
+
+    void writeTo(DataOutputStream out) throws IOException {
+        out.writeInt(bits.length);
+        for (long word : bits) out.writeLong(word);
+    }
+
+    static BloomFilter readFrom(DataInputStream in) throws IOException {
+        long[] bits = new long[in.readInt()];
+        for (int i = 0; i < bits.length; i++) bits[i] = in.readLong();
+        return new BloomFilter(bits);
+    }
+}
@@ -0,0 +1,78 @@
+package DIP.Fixed_Code;
+
+import benchmark.Bench;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.Stream;
+
+/**
+ * Writes a generated log through LogStore, then times queries against it.
+ * Run: java DIP.Fixed_Code.LogStoreBenchmark [records] [users]
+ * 30M records is roughly 2 GB of raw log.
+ */
+public class LogStoreBenchmark {
+
+    public static void main(String[] args) {
+        int records = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        int users = args.length > 1 ? Integer.parseInt(args[1]) : 10_000;
+        try {
+            run(records, users);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void run(int records, int users) throws IOException {
+        Path directory = Files.createTempDirectory("logstore");
+        try {
+            Random random = new Random(42);
+            long time = 1_700_000_000_000L;
+            long rawBytes = 0;
+
+            long start = System.nanoTime();
+            try (LogStore store = new LogStore(directory)) {
+                for (int i = 0; i < records; i++) {
+                    time += random.nextInt(4);
+                    String username = "user_" + random.nextInt(users);
+                    String message = "User processed: " + username + " action=" + random.nextInt(100) + " status=ok";
+                    store.append(time, username, message);
+                    rawBytes += 8 + username.length() + message.length() + 4;
+                }
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            long stored;
+            try (Stream<Path> files = Files.list(directory)) {
+                stored = files.mapToLong(file -> file.toFile().length()).sum();
+            }
+            System.out.printf("wrote %d records, %.0f MB raw -> %.0f MB on disk, %.1f MB/sec%n",
+                    records, rawBytes / 1e6, stored / 1e6, rawBytes / seconds / 1e6);
+
+            long end = time;
+            long hour = 3_600_000L;
+            try (LogStore store = new LogStore(directory)) {
+                Bench.header("DIP LogStore query, " + records + " records");
+                Bench.run("one user, last hour", 20, () -> query(store, "user_7", end - hour, end));
+                Bench.run("one user, all time", 5, () -> query(store, "user_7", 0, end));
+                Bench.run("unknown user, all time", 20, () -> query(store, "nobody", 0, end));
+                Bench.run("all users, last minute", 20, () -> query(store, null, end - 60_000, end));
+            }
+        } finally {
+            try (Stream<Path> files = Files.walk(directory)) {
+                files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+            }
+        }
+    }
+
+    static long query(LogStore store, String username, long from, long to) {
+        try {
+            return store.query(username, from, to).size();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
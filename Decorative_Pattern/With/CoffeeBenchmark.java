@@ -0,0 +1,32 @@
+package Decorative_Pattern.With;
+
+import benchmark.Bench;
+
+// getCost/getDescription through decorator chains of depth 1, 4 and 32.
+public class CoffeeBenchmark {
+
+    static Coffee chain(int depth) {
+        Coffee coffee = new SimpleCoffee();
+        for (int i = 0; i < depth; i++) {
+            switch (i % 4) {
+                case 0: coffee = new MileCoffee(coffee); break;
+                case 1: coffee = new SugarDecorator(coffee); break;
+                case 2: coffee = new VanillaDecorator(coffee); break;
+                default: coffee = new WhippedCreamDecorator(coffee); break;
+            }
+        }
+        return coffee;
+    }
+
+    public static void main(String[] args) {
+        Bench.header("Decorator Coffee");
+        for (int depth : new int[]{1, 4, 32}) {
+            Coffee coffee = chain(depth);
+            Bench.run("getCost, depth " + depth, 1_000_000, coffee::getCost);
+            Bench.run("getDescription, depth " + depth, 200_000, () -> coffee.getDescription().length());
+        }
+        Coffee metered = new MeteredCoffee(chain(4));
+        Bench.run("getCost, depth 4 metered", 1_000_000, metered::getCost);
+        Bench.run("build depth 4 chain", 1_000_000, () -> chain(4).hashCode());
+    }
+}
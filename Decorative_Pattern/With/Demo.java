@@ -1,5 +1,8 @@
 package Decorative_Pattern.With;
 
+import metrics.Metrics;
+import metrics.Timer;
+
 public class Demo {
 
     public static void main(String[] args) {
@@ -104,3 +107,19 @@ class WhippedCreamDecorator extends DecorativeCoffee {
         return super.getDescription() + ", whipped cream";
     }
 }
+
+// Decorator that adds nothing to the price, only times getCost() of what it wraps
+class MeteredCoffee extends DecorativeCoffee {
+    private final Timer timer = Metrics.timer("coffee.getCost");
+
+    public MeteredCoffee(Coffee coffee) {
+        super(coffee);
+    }
+
+    public int getCost() {
+        long start = timer.start();
+        int cost = super.getCost();
+        timer.stop(start);
+        return cost;
+    }
+}
@@ -0,0 +1,287 @@
+package Decorative_Pattern.With;
+
+import metrics.Metrics;
+import metrics.Timer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Coffee order intake: parse -> build Coffee decorator stack -> price -> persist.
+ * Each stage is one thread; stages are connected by SpscRings, so nothing is locked.
+ * Order objects are allocated once and go round in a loop: after persist they return to the intake
+ * through a free ring, so the only allocation per order is the Coffee decorators themselves.
+ * Every stage drains its input in batches, persist writes one buffer per batch.
+ * Per-stage latency (time since the previous stage handed the order over) goes to metrics Timers
+ * "orders.parse", "orders.build", "orders.price", "orders.persist" and "orders.total".
+ * If a stage throws (e.g. the ledger write fails), the pipeline stops and submit, awaitPersisted and
+ * close throw IllegalStateException with that failure as the cause.
+ * After close(), submit and awaitPersisted throw IllegalStateException.
+ */
+public class OrderPipeline implements AutoCloseable {
+
+    static final int RING_SIZE = 4096;
+    static final int BATCH = 256;
+    static final int MAX_TOPPINGS = 8;
+
+    static final byte MILK = 1, SUGAR = 2, VANILLA = 3, CREAM = 4;
+
+    // One order, reused. Each field is written by one stage and read by the later ones.
+    static final class Order {
+        long id;
+        String line;                      // e.g. "milk,sugar,vanilla"
+        final byte[] toppings = new byte[MAX_TOPPINGS];
+        int toppingCount;
+        boolean valid;
+        Coffee coffee;
+        int cost;
+        long created;                     // nanoTime when it entered the pipeline
+        long stamp;                       // nanoTime when the previous stage finished
+    }
+
+    private final SpscRing<Order> free = new SpscRing<>(RING_SIZE);
+    private final SpscRing<Order> parseIn = new SpscRing<>(RING_SIZE);
+    private final SpscRing<Order> buildIn = new SpscRing<>(RING_SIZE);
+    private final SpscRing<Order> priceIn = new SpscRing<>(RING_SIZE);
+    private final SpscRing<Order> persistIn = new SpscRing<>(RING_SIZE);
+
+    private final Thread[] threads;
+    private final FileChannel channel;
+    private final ByteBuffer persistBuffer = ByteBuffer.allocateDirect(BATCH * 16);
+    private volatile boolean running = true;
+    private volatile boolean closed;
+    private volatile long persisted;
+    private volatile RuntimeException failure; // first stage failure, the pipeline is stopped for good
+    private long nextId;
+
+    private final Timer parseTimer = Metrics.timer("orders.parse");
+    private final Timer buildTimer = Metrics.timer("orders.build");
+    private final Timer priceTimer = Metrics.timer("orders.price");
+    private final Timer persistTimer = Metrics.timer("orders.persist");
+    private final Timer totalTimer = Metrics.timer("orders.total");
+
+    // Orders are persisted as 16 byte records (id, toppings, cost) to ledger
+    public OrderPipeline(Path ledger) throws IOException {
+        channel = FileChannel.open(ledger, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        for (int i = 0; i < RING_SIZE; i++) free.offer(new Order());
+
+        threads = new Thread[]{
+                stage("order-parse", parseIn, buildIn, this::parse, null),
+                stage("order-build", buildIn, priceIn, this::build, null),
+                stage("order-price", priceIn, persistIn, this::price, null),
+                stage("order-persist", persistIn, free, this::persist, this::writeBatch)
+        };
+        for (Thread thread : threads) thread.start();
+    }
+
+    // Intake, called by one thread only. Waits while all orders are in flight.
+    public void submit(String line) {
+        checkOpen();
+        checkFailure();
+        Order order;
+        int idle = 0;
+        while ((order = free.poll()) == null) idle = idleUnlessFailed(idle);
+        order.id = nextId++;
+        order.line = line;
+        order.created = order.stamp = System.nanoTime();
+        idle = 0;
+        while (!parseIn.offer(order)) idle = idleUnlessFailed(idle);
+    }
+
+    public long persisted() {
+        return persisted;
+    }
+
+    // Waits until every submitted order is persisted
+    public void awaitPersisted() {
+        checkOpen();
+        waitForPersisted();
+    }
+
+    private void waitForPersisted() {
+        int idle = 0;
+        while (persisted < nextId) idle = idleUnlessFailed(idle);
+    }
+
+    // Stops the stages and closes the ledger even when a stage failed, then reports that failure
+    public void close() throws IOException {
+        if (closed) return;
+        closed = true;
+        try {
+            waitForPersisted();
+        } finally {
+            running = false;
+            for (Thread thread : threads) {
+                try {
+                    thread.join();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            channel.close();
+        }
+    }
+
+    private void checkOpen() {
+        if (closed) throw new IllegalStateException("OrderPipeline is closed");
+    }
+
+    private void checkFailure() {
+        RuntimeException stageFailure = failure;
+        if (stageFailure != null) throw new IllegalStateException("Order pipeline stopped", stageFailure);
+    }
+
+    // idle(), but gives up once a stage failed: the order being waited for will never come
+    private int idleUnlessFailed(int idle) {
+        checkFailure();
+        return idle(idle);
+    }
+
+    // ---- stages ----
+
+    interface Step {
+        void apply(Order order);
+    }
+
+    private Thread stage(String name, SpscRing<Order> in, SpscRing<Order> out, Step step, Runnable endOfBatch) {
+        Thread thread = new Thread(() -> {
+            int[] idle = {0};
+            try {
+                while (running) {
+                    int count = in.drain(order -> {
+                        step.apply(order);
+                        while (!out.offer(order)) idle[0] = idleUnlessFailed(idle[0]); // a later stage may be dead
+                    }, BATCH);
+                    if (count == 0) {
+                        idle[0] = idle(idle[0]);
+                    } else {
+                        idle[0] = 0;
+                        if (endOfBatch != null) endOfBatch.run();
+                    }
+                }
+            } catch (RuntimeException | Error e) {
+                if (failure == null) failure = new IllegalStateException(name + " failed", e);
+                running = false;
+            }
+        }, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    private void parse(Order order) {
+        String line = order.line;
+        order.toppingCount = 0;
+        order.valid = true;
+        int start = 0;
+        while (start < line.length()) {
+            int end = line.indexOf(',', start);
+            if (end < 0) end = line.length();
+            byte topping = topping(line, start, end - start);
+            if (topping == 0 || order.toppingCount == MAX_TOPPINGS) {
+                order.valid = false;
+                break;
+            }
+            order.toppings[order.toppingCount++] = topping;
+            start = end + 1;
+        }
+        if (start == line.length() && start > 0) order.valid = false; // "milk," ends with an empty topping
+        order.stamp = lap(parseTimer, order.stamp);
+    }
+
+    private static byte topping(String line, int start, int length) {
+        if (line.regionMatches(start, "milk", 0, length) && length == 4) return MILK;
+        if (line.regionMatches(start, "sugar", 0, length) && length == 5) return SUGAR;
+        if (line.regionMatches(start, "vanilla", 0, length) && length == 7) return VANILLA;
+        if (line.regionMatches(start, "cream", 0, length) && length == 5) return CREAM;
+        return 0;
+    }
+
+    private void build(Order order) {
+        if (order.valid) {
+            Coffee coffee = new SimpleCoffee();
+            for (int i = 0; i < order.toppingCount; i++) {
+                switch (order.toppings[i]) {
+                    case MILK: coffee = new MileCoffee(coffee); break;
+                    case SUGAR: coffee = new SugarDecorator(coffee); break;
+                    case VANILLA: coffee = new VanillaDecorator(coffee); break;
+                    default: coffee = new WhippedCreamDecorator(coffee); break;
+                }
+            }
+            order.coffee = coffee;
+        }
+        order.stamp = lap(buildTimer, order.stamp);
+    }
+
+    private void price(Order order) {
+        order.cost = order.valid ? order.coffee.getCost() : -1;
+        order.stamp = lap(priceTimer, order.stamp);
+    }
+
+    private void persist(Order order) {
+        int mask = 0;
+        for (int i = 0; i < order.toppingCount; i++) mask = mask << 4 | order.toppings[i];
+        persistBuffer.putLong(order.id).putInt(mask).putInt(order.cost);
+        long now = lap(persistTimer, order.stamp);
+        totalTimer.record(now - order.created);
+        order.coffee = null;
+        order.line = null;
+    }
+
+    private void writeBatch() {
+        int records = persistBuffer.position() / 16;
+        persistBuffer.flip();
+        try {
+            while (persistBuffer.hasRemaining()) channel.write(persistBuffer);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        persistBuffer.clear();
+        persisted = persisted + records; // only this thread writes it
+    }
+
+    private static long lap(Timer timer, long since) {
+        long now = System.nanoTime();
+        timer.record(now - since);
+        return now;
+    }
+
+    public static void main(String[] args) throws IOException {
+        int orders = args.length > 0 ? Integer.parseInt(args[0]) : 5_000_000;
+        String[] lines = {"", "milk", "milk,sugar", "sugar,vanilla,cream", "milk,sugar,vanilla,cream", "milk,honey"};
+
+        Path ledger = Files.createTempFile("orders", ".ledger");
+        try (OrderPipeline pipeline = new OrderPipeline(ledger)) {
+            for (int i = 0; i < orders / 5; i++) pipeline.submit(lines[i % lines.length]); // warm up
+            pipeline.awaitPersisted();
+            Metrics.reset();
+
+            long start = System.nanoTime();
+            for (int i = 0; i < orders; i++) pipeline.submit(lines[i % lines.length]);
+            pipeline.awaitPersisted();
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            System.out.printf("%d orders: %.2f M orders/sec, ledger %d MB%n",
+                    orders, orders / seconds / 1e6, Files.size(ledger) / 1_000_000);
+            for (String line : Metrics.snapshot()) {
+                if (line.startsWith("orders.")) System.out.println(line);
+            }
+        } finally {
+            Files.delete(ledger);
+        }
+    }
+
+    // Spin, then yield, then back off with short parks
+    static int idle(int idle) {
+        if (idle < 100) Thread.onSpinWait();
+        else if (idle < 200) Thread.yield();
+        else LockSupport.parkNanos(10_000);
+        return idle + 1;
+    }
+}
@@ -0,0 +1,111 @@
+package Decorative_Pattern.With;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.function.Consumer;
+
+/**
+ * Bounded single-producer / single-consumer ring buffer, allocated once up front.
+ * The producer index (tail) and consumer index (head) are each on their own cache line, kept apart with
+ * padding fields (the JVM lays out superclass fields first), so the two threads do not false-share.
+ * Each side also keeps a cached copy of the other side's index and only re-reads it when the ring looks
+ * full/empty. drain() hands over a whole batch and publishes the new head once.
+ */
+final class SpscRing<E> extends RingConsumerPad {
+
+    private static final VarHandle TAIL;
+    private static final VarHandle HEAD;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            TAIL = lookup.findVarHandle(RingProducer.class, "tail", long.class);
+            HEAD = lookup.findVarHandle(RingConsumer.class, "head", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final Object[] items;
+    private final int mask;
+
+    SpscRing(int capacity) {
+        if (Integer.bitCount(capacity) != 1) throw new IllegalArgumentException("Capacity must be a power of two: " + capacity);
+        items = new Object[capacity];
+        mask = capacity - 1;
+    }
+
+    int capacity() {
+        return items.length;
+    }
+
+    // Producer thread only. False when full.
+    boolean offer(E item) {
+        long t = tail;
+        if (t - cachedHead >= items.length) {
+            cachedHead = (long) HEAD.getAcquire(this);
+            if (t - cachedHead >= items.length) return false;
+        }
+        items[(int) t & mask] = item;
+        TAIL.setRelease(this, t + 1);
+        return true;
+    }
+
+    // Consumer thread only. Null when empty.
+    @SuppressWarnings("unchecked")
+    E poll() {
+        long h = head;
+        if (h == cachedTail) {
+            cachedTail = (long) TAIL.getAcquire(this);
+            if (h == cachedTail) return null;
+        }
+        int index = (int) h & mask;
+        E item = (E) items[index];
+        items[index] = null;
+        HEAD.setRelease(this, h + 1);
+        return item;
+    }
+
+    // Consumer thread only. Passes up to limit items to handler, returns how many.
+    @SuppressWarnings("unchecked")
+    int drain(Consumer<E> handler, int limit) {
+        long h = head;
+        if (h == cachedTail) {
+            cachedTail = (long) TAIL.getAcquire(this);
+            if (h == cachedTail) return 0;
+        }
+        int count = (int) Math.min(limit, cachedTail - h);
+        for (int i = 0; i < count; i++) {
+            int index = (int) (h + i) & mask;
+            E item = (E) items[index];
+            items[index] = null;
+            handler.accept(item);
+        }
+        HEAD.setRelease(this, h + count);
+        return count;
+    }
+}
+
+// ---- field layout: padding | producer fields | padding | consumer fields | padding ----
+
+abstract class RingPad0 {
+    long p00, p01, p02, p03, p04, p05, p06, p07;
+}
+
+abstract class RingProducer extends RingPad0 {
+    volatile long tail;     // written by producer
+    long cachedHead;        // producer's last seen head
+}
+
+abstract class RingProducerPad extends RingProducer {
+    long p10, p11, p12, p13, p14, p15, p16, p17;
+}
+
+abstract class RingConsumer extends RingProducerPad {
+    volatile long head;     // written by consumer
+    long cachedTail;        // consumer's last seen tail
+}
+
+abstract class RingConsumerPad extends RingConsumer {
+    long p20, p21, p22, p23, p24, p25, p26, p27;
+}
@@ -0,0 +1,40 @@
+package ISP.Bad_Code;
+
+import benchmark.Bench;
+
+/**
+ * Exception probing vs WorkerCapabilities, asking every worker to design().
+ * Run: java ISP.Bad_Code.CapabilityBenchmark [iterations]
+ */
+public class CapabilityBenchmark {
+
+    static int probe(Worker[] workers) {
+        int designed = 0;
+        for (Worker worker : workers) {
+            try {
+                worker.design();
+                designed++;
+            } catch (UnsupportedOperationException e) {
+                // not a designer
+            }
+        }
+        return designed;
+    }
+
+    static int lookup(Worker[] workers) {
+        int designed = 0;
+        for (Worker worker : workers) {
+            if (WorkerCapabilities.invoke(worker, WorkerCapabilities.Capability.DESIGN)) designed++;
+        }
+        return designed;
+    }
+
+    public static void main(String[] args) {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        Worker[] workers = {new Developer(), new Designer(), new Robot(), new Developer()};
+
+        Bench.header("ISP capability dispatch");
+        Bench.run("exception probing", iterations, () -> probe(workers));
+        Bench.run("capability lookup", iterations, () -> lookup(workers));
+    }
+}
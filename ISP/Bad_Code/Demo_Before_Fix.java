@@ -54,6 +54,7 @@ class Developer implements Worker {
     public void work() { System.out.println("Developer working"); }
     public void eat() { System.out.println("Developer eating"); }
     public void code() { System.out.println("Developer coding"); }
+    @NotSupported
     public void design() {
         // Developer doesn't design, but forced to implement
         throw new UnsupportedOperationException("I don't design!");
@@ -64,6 +65,7 @@ class Developer implements Worker {
 class Designer implements Worker {
     public void work() { System.out.println("Designer working"); }
     public void eat() { System.out.println("Designer eating"); }
+    @NotSupported
     public void code() {
         // Designer doesn't code, but forced to implement
         throw new UnsupportedOperationException("I don't code!");
@@ -73,6 +75,7 @@ class Designer implements Worker {
 
 class Robot implements Worker {
     public void work() { System.out.println("Designer working"); }
+    @NotSupported
     public void eat() { throw new UnsupportedOperationException("I don't design!"); }
     public void code() { System.out.println("Developer coding"); }
     public void design() { System.out.println("Designer designing"); }
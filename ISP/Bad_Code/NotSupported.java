@@ -0,0 +1,14 @@
+package ISP.Bad_Code;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Marks a Worker method that is only there because the FAT interface forced it
+// and always throws UnsupportedOperationException.
+// Lets WorkerCapabilities find out what a class supports without calling it.
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+@interface NotSupported {
+}
@@ -0,0 +1,87 @@
+package ISP.Bad_Code;
+
+import java.lang.reflect.Method;
+import java.util.function.Consumer;
+
+/**
+ * Answers "can this Worker code()/design()?" without calling the method and catching
+ * UnsupportedOperationException.
+ * Each Worker class is resolved only once (ClassValue), after that it is a plain array lookup.
+ * Contract: a method a class does not support must be annotated @NotSupported. Support is read from
+ * the annotation only, so a Worker that throws UnsupportedOperationException without it is reported as
+ * supported, and invoke() lets that exception through.
+ */
+public class WorkerCapabilities {
+
+    enum Capability {
+        WORK("work", Worker::work),
+        EAT("eat", Worker::eat),
+        CODE("code", Worker::code),
+        DESIGN("design", Worker::design);
+
+        final String methodName;
+        final Consumer<Worker> call;
+
+        Capability(String methodName, Consumer<Worker> call) {
+            this.methodName = methodName;
+            this.call = call;
+        }
+    }
+
+    static final Consumer<Worker> NO_OP = worker -> { };
+
+    // Per class: one invoker per Capability, NO_OP where the method is @NotSupported
+    private static final ClassValue<Consumer<Worker>[]> INVOKERS = new ClassValue<>() {
+        @Override
+        protected Consumer<Worker>[] computeValue(Class<?> type) {
+            @SuppressWarnings({"unchecked", "rawtypes"})
+            Consumer<Worker>[] invokers = new Consumer[Capability.values().length];
+            for (Capability capability : Capability.values()) {
+                invokers[capability.ordinal()] = isSupported(type, capability) ? capability.call : NO_OP;
+            }
+            return invokers;
+        }
+    };
+
+    private static boolean isSupported(Class<?> type, Capability capability) {
+        try {
+            Method method = type.getMethod(capability.methodName);
+            return !method.isAnnotationPresent(NotSupported.class);
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    static boolean supports(Worker worker, Capability capability) {
+        return INVOKERS.get(worker.getClass())[capability.ordinal()] != NO_OP;
+    }
+
+    // Pre-bound invoker for a whole class, resolve once and reuse it in loops.
+    static Consumer<Worker> invoker(Class<? extends Worker> type, Capability capability) {
+        return INVOKERS.get(type)[capability.ordinal()];
+    }
+
+    // Calls the capability if supported, returns false (no exception) otherwise.
+    static boolean invoke(Worker worker, Capability capability) {
+        Consumer<Worker> invoker = INVOKERS.get(worker.getClass())[capability.ordinal()];
+        if (invoker == NO_OP) return false;
+        invoker.accept(worker);
+        return true;
+    }
+
+    public static void main(String[] args) {
+        Worker[] workers = {new Developer(), new Designer(), new Robot()};
+
+        for (Worker worker : workers) {
+            System.out.println(worker.getClass().getSimpleName()
+                    + " code=" + supports(worker, Capability.CODE)
+                    + " design=" + supports(worker, Capability.DESIGN)
+                    + " eat=" + supports(worker, Capability.EAT));
+        }
+
+        // No try/catch needed, unsupported calls are simply skipped
+        for (Worker worker : workers) {
+            invoke(worker, Capability.DESIGN);
+        }
+    }
+}
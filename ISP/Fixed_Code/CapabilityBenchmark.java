@@ -0,0 +1,68 @@
+package ISP.Fixed_Code;
+
+import benchmark.Bench;
+
+/**
+ * WorkerCapabilities (ClassValue lookup) vs plain type checks, counting the workers that can design().
+ * "check" runs only the dispatch; "call" also calls design() (which prints, muted by Bench).
+ * Run: java ISP.Fixed_Code.CapabilityBenchmark [iterations]
+ */
+public class CapabilityBenchmark {
+
+    static int checkInstanceof(Object[] workers) {
+        int designers = 0;
+        for (Object worker : workers) {
+            if (worker instanceof Designable) designers++;
+        }
+        return designers;
+    }
+
+    // The capability is only known at run time, as with WorkerCapabilities
+    static int checkIsInstance(Object[] workers, WorkerCapabilities.Capability capability) {
+        int designers = 0;
+        for (Object worker : workers) {
+            if (capability.type.isInstance(worker)) designers++;
+        }
+        return designers;
+    }
+
+    static int checkLookup(Object[] workers, WorkerCapabilities.Capability capability) {
+        int designers = 0;
+        for (Object worker : workers) {
+            if (WorkerCapabilities.supports(worker, capability)) designers++;
+        }
+        return designers;
+    }
+
+    static int callInstanceof(Object[] workers) {
+        int designed = 0;
+        for (Object worker : workers) {
+            if (worker instanceof Designable) {
+                ((Designable) worker).design();
+                designed++;
+            }
+        }
+        return designed;
+    }
+
+    static int callLookup(Object[] workers, WorkerCapabilities.Capability capability) {
+        int designed = 0;
+        for (Object worker : workers) {
+            if (WorkerCapabilities.invoke(worker, capability)) designed++;
+        }
+        return designed;
+    }
+
+    public static void main(String[] args) {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        Object[] workers = {new Developer(), new Designer(), new Robot(), new Developer()};
+        WorkerCapabilities.Capability design = WorkerCapabilities.Capability.DESIGN;
+
+        Bench.header("ISP capability check, fixed interfaces");
+        Bench.run("check, instanceof", iterations, () -> checkInstanceof(workers));
+        Bench.run("check, Class.isInstance", iterations, () -> checkIsInstance(workers, design));
+        Bench.run("check, ClassValue lookup", iterations, () -> checkLookup(workers, design));
+        Bench.run("call, instanceof + cast", iterations / 10, () -> callInstanceof(workers));
+        Bench.run("call, ClassValue invoker", iterations / 10, () -> callLookup(workers, design));
+    }
+}
@@ -0,0 +1,215 @@
+package LSP;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Ticks a large fleet of Movable entities.
+ * State is kept as structure-of-arrays (one primitive array per field) instead of one object per
+ * vehicle, and every tick is split across cores with fork-join.
+ * EnginePowered entities are separated once in add(), so the tick loops never do an instanceof check:
+ * one tight loop for engines (with fuel) and one for everything else (Bicycle2).
+ * The per-id accessors throw IndexOutOfBoundsException for an id add() never returned.
+ */
+public class FleetSimulation {
+
+    static final double MAX_ENGINE_ACCEL = 3.0;   // m/s^2 at full throttle
+    static final double MAX_PEDAL_ACCEL = 0.8;    // m/s^2 at full effort
+    static final double DRAG = 0.05;
+    static final double FUEL_BURN = 0.01;         // litre per second at full throttle
+    static final double DEFAULT_FUEL = 50.0;      // litres, what add(movable) puts in an engine vehicle
+    static final int SPLIT_THRESHOLD = 16_384;
+
+    private static final byte ENGINE = 0;
+    private static final byte PEDAL = 1;
+
+    // Engine powered lane (Car2)
+    double[] enginePosition = new double[16];
+    double[] engineSpeed = new double[16];
+    double[] engineThrottle = new double[16];
+    double[] engineFuel = new double[16];
+    int engineCount;
+
+    // Everything else that only Movable (Bicycle2)
+    double[] pedalPosition = new double[16];
+    double[] pedalSpeed = new double[16];
+    double[] pedalEffort = new double[16];
+    int pedalCount;
+
+    // id -> (lane, slot)
+    private byte[] lane = new byte[16];
+    private int[] slot = new int[16];
+    private int size;
+
+    private final ForkJoinPool pool;
+    private long ticks;
+
+    public FleetSimulation() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public FleetSimulation(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    // Returns the id used by the accessors below. fuel (litres) only matters for EnginePowered ones.
+    public int add(Movable movable, double fuel) {
+        if (!(fuel >= 0)) throw new IllegalArgumentException("Fuel must not be negative: " + fuel);
+        if (size == lane.length) {
+            lane = Arrays.copyOf(lane, size * 2);
+            slot = Arrays.copyOf(slot, size * 2);
+        }
+        if (movable instanceof EnginePowered) {
+            if (engineCount == enginePosition.length) growEngine();
+            engineFuel[engineCount] = fuel;
+            lane[size] = ENGINE;
+            slot[size] = engineCount++;
+        } else {
+            if (pedalCount == pedalPosition.length) growPedal();
+            lane[size] = PEDAL;
+            slot[size] = pedalCount++;
+        }
+        return size++;
+    }
+
+    // Engine vehicles start with DEFAULT_FUEL, an empty tank would never move
+    public int add(Movable movable) {
+        return add(movable, DEFAULT_FUEL);
+    }
+
+    // 0..1, throttle for engines and pedal effort for the rest
+    public void setPower(int id, double power) {
+        Objects.checkIndex(id, size);
+        if (!(power >= 0 && power <= 1)) throw new IllegalArgumentException("Power must be between 0 and 1: " + power);
+        if (lane[id] == ENGINE) engineThrottle[slot[id]] = power;
+        else pedalEffort[slot[id]] = power;
+    }
+
+    public double position(int id) {
+        Objects.checkIndex(id, size);
+        return lane[id] == ENGINE ? enginePosition[slot[id]] : pedalPosition[slot[id]];
+    }
+
+    public double speed(int id) {
+        Objects.checkIndex(id, size);
+        return lane[id] == ENGINE ? engineSpeed[slot[id]] : pedalSpeed[slot[id]];
+    }
+
+    public double fuel(int id) {
+        Objects.checkIndex(id, size);
+        return lane[id] == ENGINE ? engineFuel[slot[id]] : 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long ticks() {
+        return ticks;
+    }
+
+    public void tick(double dt) {
+        pool.invoke(new TickTask(this, dt));
+        ticks++;
+    }
+
+    private void growEngine() {
+        int capacity = enginePosition.length * 2;
+        enginePosition = Arrays.copyOf(enginePosition, capacity);
+        engineSpeed = Arrays.copyOf(engineSpeed, capacity);
+        engineThrottle = Arrays.copyOf(engineThrottle, capacity);
+        engineFuel = Arrays.copyOf(engineFuel, capacity);
+    }
+
+    private void growPedal() {
+        int capacity = pedalPosition.length * 2;
+        pedalPosition = Arrays.copyOf(pedalPosition, capacity);
+        pedalSpeed = Arrays.copyOf(pedalSpeed, capacity);
+        pedalEffort = Arrays.copyOf(pedalEffort, capacity);
+    }
+
+    void tickEngines(int from, int to, double dt) {
+        double[] position = enginePosition, speed = engineSpeed, throttle = engineThrottle, fuel = engineFuel;
+        for (int i = from; i < to; i++) {
+            double power = fuel[i] > 0 ? throttle[i] : 0;
+            fuel[i] = Math.max(0, fuel[i] - power * FUEL_BURN * dt);
+            speed[i] += (power * MAX_ENGINE_ACCEL - DRAG * speed[i]) * dt;
+            position[i] += speed[i] * dt;
+        }
+    }
+
+    void tickPedals(int from, int to, double dt) {
+        double[] position = pedalPosition, speed = pedalSpeed, effort = pedalEffort;
+        for (int i = from; i < to; i++) {
+            speed[i] += (effort[i] * MAX_PEDAL_ACCEL - DRAG * speed[i]) * dt;
+            position[i] += speed[i] * dt;
+        }
+    }
+
+    // Splits both lanes at once, then halves the range until it is small enough to run inline.
+    static final class TickTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        final FleetSimulation fleet;
+        final double dt;
+        final boolean engine;
+        final int from, to;
+
+        TickTask(FleetSimulation fleet, double dt) {
+            this(fleet, dt, false, -1, -1);
+        }
+
+        TickTask(FleetSimulation fleet, double dt, boolean engine, int from, int to) {
+            this.fleet = fleet;
+            this.dt = dt;
+            this.engine = engine;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (from < 0) {
+                invokeAll(new TickTask(fleet, dt, true, 0, fleet.engineCount),
+                        new TickTask(fleet, dt, false, 0, fleet.pedalCount));
+            } else if (to - from > SPLIT_THRESHOLD) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new TickTask(fleet, dt, engine, from, mid),
+                        new TickTask(fleet, dt, engine, mid, to));
+            } else if (engine) {
+                fleet.tickEngines(from, to, dt);
+            } else {
+                fleet.tickPedals(from, to, dt);
+            }
+        }
+    }
+
+    public static void main(String[] args) {
+        int vehicles = args.length > 0 ? Integer.parseInt(args[0]) : 500_000;
+        int ticks = args.length > 1 ? Integer.parseInt(args[1]) : 500;
+
+        FleetSimulation fleet = new FleetSimulation();
+        for (int i = 0; i < vehicles; i++) {
+            // two cars for every bicycle
+            Movable movable = i % 3 == 2 ? new Bicycle2() : new Car2();
+            int id = fleet.add(movable, 50.0);
+            fleet.setPower(id, (i % 10) / 10.0);
+        }
+
+        for (int i = 0; i < ticks / 5; i++) fleet.tick(0.1); // warm up
+
+        long start = System.nanoTime();
+        for (int i = 0; i < ticks; i++) fleet.tick(0.1);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("%d vehicles (%d engine, %d pedal), pool parallelism %d, %d cores%n",
+                fleet.size(), fleet.engineCount, fleet.pedalCount, fleet.pool.getParallelism(),
+                Runtime.getRuntime().availableProcessors());
+        System.out.printf("%.1f ticks/sec, %.1f M vehicle updates/sec%n",
+                ticks / seconds, (double) ticks * fleet.size() / seconds / 1e6);
+        System.out.printf("vehicle 1: position %.1f m, speed %.1f m/s, fuel %.2f%n",
+                fleet.position(1), fleet.speed(1), fleet.fuel(1));
+    }
+}
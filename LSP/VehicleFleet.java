@@ -0,0 +1,89 @@
+package LSP;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Holds a mixed fleet of Vehicle (Car, Bicycle) and Movable (Car2, Bicycle2) objects, grouped by
+ * concrete class.
+ * One loop over a mixed list sees four receiver types, so the JIT gives up inlining (megamorphic call site).
+ * Here every known class has its own list and its own loop, so each call site only ever sees one type.
+ * Engine operations go only to groups that have an engine, so Bicycle.engineStart() and its
+ * EngineNotFoundException are never reached.
+ */
+public class VehicleFleet {
+
+    private final List<Car> cars = new ArrayList<>();
+    private final List<Bicycle> bicycles = new ArrayList<>();
+    private final List<Car2> car2s = new ArrayList<>();
+    private final List<Bicycle2> bicycle2s = new ArrayList<>();
+
+    // Any other class, checked once here in add() instead of on every call
+    private final List<Vehicle> otherVehicles = new ArrayList<>();
+    private final List<Vehicle> otherEngineVehicles = new ArrayList<>();
+    private final List<Movable> otherMovables = new ArrayList<>();
+    private final List<EnginePowered> otherEngines = new ArrayList<>();
+
+    public void add(Vehicle vehicle) {
+        if (vehicle.getClass() == Car.class) cars.add((Car) vehicle);
+        else if (vehicle.getClass() == Bicycle.class) bicycles.add((Bicycle) vehicle);
+        else {
+            otherVehicles.add(vehicle);
+            // a Bicycle subclass still has no engine, anything else is trusted to honour Vehicle.engineStart()
+            if (!(vehicle instanceof Bicycle)) otherEngineVehicles.add(vehicle);
+        }
+    }
+
+    public void add(Movable movable) {
+        if (movable.getClass() == Car2.class) car2s.add((Car2) movable);
+        else if (movable.getClass() == Bicycle2.class) bicycle2s.add((Bicycle2) movable);
+        else {
+            otherMovables.add(movable);
+            if (movable instanceof EnginePowered) otherEngines.add((EnginePowered) movable);
+        }
+    }
+
+    public int size() {
+        return cars.size() + bicycles.size() + car2s.size() + bicycle2s.size()
+                + otherVehicles.size() + otherMovables.size();
+    }
+
+    public void speedUp() {
+        for (int i = 0; i < cars.size(); i++) cars.get(i).speedUp();
+        for (int i = 0; i < bicycles.size(); i++) bicycles.get(i).speedUp();
+        for (int i = 0; i < car2s.size(); i++) car2s.get(i).speedUp();
+        for (int i = 0; i < bicycle2s.size(); i++) bicycle2s.get(i).speedUp();
+        for (int i = 0; i < otherVehicles.size(); i++) otherVehicles.get(i).speedUp();
+        for (int i = 0; i < otherMovables.size(); i++) otherMovables.get(i).speedUp();
+    }
+
+    public void speedDown() {
+        for (int i = 0; i < cars.size(); i++) cars.get(i).speedDown();
+        for (int i = 0; i < bicycles.size(); i++) bicycles.get(i).speedDown();
+        for (int i = 0; i < car2s.size(); i++) car2s.get(i).speedDown();
+        for (int i = 0; i < bicycle2s.size(); i++) bicycle2s.get(i).speedDown();
+        for (int i = 0; i < otherVehicles.size(); i++) otherVehicles.get(i).speedDown();
+        for (int i = 0; i < otherMovables.size(); i++) otherMovables.get(i).speedDown();
+    }
+
+    // Only Car, Car2, other EnginePowered classes and Vehicle subclasses that are not a Bicycle.
+    public void engineStart() {
+        for (int i = 0; i < cars.size(); i++) cars.get(i).engineStart();
+        for (int i = 0; i < car2s.size(); i++) car2s.get(i).engineStart();
+        for (int i = 0; i < otherEngineVehicles.size(); i++) otherEngineVehicles.get(i).engineStart();
+        for (int i = 0; i < otherEngines.size(); i++) otherEngines.get(i).engineStart();
+    }
+
+    public static void main(String[] args) {
+        VehicleFleet fleet = new VehicleFleet();
+        fleet.add(new Car());
+        fleet.add(new Bicycle());
+        fleet.add(new Car2());
+        fleet.add(new Bicycle2());
+        fleet.add(new Bicycle() { }); // Bicycle subclass, still no engine
+
+        fleet.engineStart(); // no EngineNotFoundException
+        fleet.speedUp();
+        fleet.speedDown();
+    }
+}
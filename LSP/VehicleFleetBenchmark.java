@@ -0,0 +1,96 @@
+package LSP;
+
+import benchmark.Bench;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Naive mixed loops vs VehicleFleet, speedUp() and engineStart() measured separately.
+ * speedUp: the naive loop is one List<Runnable> with a bound speedUp per vehicle. Each concrete class gets
+ * its own lambda class, so the single r.run() call site sees four receiver types (megamorphic).
+ * engineStart: the naive version is List<Vehicle> with try/catch (Bicycle throws) plus List<Movable>
+ * with instanceof EnginePowered, since Car2/Bicycle2 do not extend Vehicle.
+ * Bench mutes System.out while measuring, the println inside each vehicle is still part of the cost.
+ * Run: java LSP.VehicleFleetBenchmark [vehicles] [rounds]
+ */
+public class VehicleFleetBenchmark {
+
+    static int naiveSpeedUp(List<Runnable> speedUps) {
+        for (Runnable speedUp : speedUps) speedUp.run();
+        return speedUps.size();
+    }
+
+    static int naiveEngineStart(List<Vehicle> vehicles, List<Movable> movables) {
+        int started = 0;
+        for (Vehicle vehicle : vehicles) {
+            try {
+                vehicle.engineStart();
+                started++;
+            } catch (EngineNotFoundException e) {
+                // bicycle
+            }
+        }
+        for (Movable movable : movables) {
+            if (movable instanceof EnginePowered) {
+                ((EnginePowered) movable).engineStart();
+                started++;
+            }
+        }
+        return started;
+    }
+
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+
+        List<Runnable> speedUps = new ArrayList<>();
+        List<Vehicle> vehicles = new ArrayList<>();
+        List<Movable> movables = new ArrayList<>();
+        VehicleFleet fleet = new VehicleFleet();
+        for (int i = 0; i < count; i++) {
+            switch (i % 4) {
+                case 0: {
+                    Car car = new Car();
+                    speedUps.add(car::speedUp);
+                    vehicles.add(car);
+                    fleet.add(car);
+                    break;
+                }
+                case 1: {
+                    Bicycle bicycle = new Bicycle();
+                    speedUps.add(bicycle::speedUp);
+                    vehicles.add(bicycle);
+                    fleet.add(bicycle);
+                    break;
+                }
+                case 2: {
+                    Car2 car = new Car2();
+                    speedUps.add(car::speedUp);
+                    movables.add(car);
+                    fleet.add(car);
+                    break;
+                }
+                default: {
+                    Bicycle2 bicycle = new Bicycle2();
+                    speedUps.add(bicycle::speedUp);
+                    movables.add(bicycle);
+                    fleet.add(bicycle);
+                    break;
+                }
+            }
+        }
+
+        Bench.header("LSP vehicle dispatch, " + count + " vehicles per op");
+        Bench.run("speedUp, one megamorphic call site", rounds, () -> naiveSpeedUp(speedUps));
+        Bench.run("speedUp, type partitioned", rounds, () -> {
+            fleet.speedUp();
+            return fleet.size();
+        });
+        Bench.run("engineStart, try/catch + instanceof", rounds, () -> naiveEngineStart(vehicles, movables));
+        Bench.run("engineStart, type partitioned", rounds, () -> {
+            fleet.engineStart();
+            return fleet.size();
+        });
+    }
+}
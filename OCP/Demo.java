@@ -1,5 +1,8 @@
 package OCP;
 
+import metrics.Metrics;
+import metrics.Timer;
+
 //OCP (Open for extension and Closed for Modification)
 public class Demo {
 
@@ -64,3 +67,21 @@ class PayTM implements IDiscount{
         return 30;
     }
 }
+
+// Decorator: counts and times getDiscount() per discount type
+class MeteredDiscount implements IDiscount{
+    private final IDiscount discount;
+    private final Timer timer;
+
+    MeteredDiscount(IDiscount discount){
+        this.discount = discount;
+        this.timer = Metrics.timer("discount." + discount.getClass().getSimpleName() + ".getDiscount");
+    }
+
+    public int getDiscount(){
+        long start = timer.start();
+        int value = discount.getDiscount();
+        timer.stop(start);
+        return value;
+    }
+}
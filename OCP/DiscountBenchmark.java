@@ -0,0 +1,40 @@
+package OCP;
+
+import benchmark.Bench;
+
+// getDicount string matching vs getDicount_2 through IDiscount.
+public class DiscountBenchmark {
+
+    public static void main(String[] args) {
+        Demo demo = new Demo();
+        String[] pays = {"Debit", "Credit", "PayTM", "Cash"};
+        IDiscount[] discounts = {new Debit(), new Credit(), new PayTM()};
+
+        Bench.header("OCP discount");
+        Bench.run("getDicount(String), 4 kinds", 1_000_000, () -> {
+            long total = 0;
+            for (String pay : pays) total += demo.getDicount(pay);
+            return total;
+        });
+        // new String so equals() cannot short cut on the same reference
+        String[] copies = new String[pays.length];
+        for (int i = 0; i < pays.length; i++) copies[i] = new String(pays[i]);
+        Bench.run("getDicount(String), non-interned", 1_000_000, () -> {
+            long total = 0;
+            for (String pay : copies) total += demo.getDicount(pay);
+            return total;
+        });
+        Bench.run("getDicount_2(IDiscount), 3 kinds", 1_000_000, () -> {
+            long total = 0;
+            for (IDiscount discount : discounts) total += demo.getDicount_2(discount);
+            return total;
+        });
+        IDiscount[] metered = new IDiscount[discounts.length];
+        for (int i = 0; i < discounts.length; i++) metered[i] = new MeteredDiscount(discounts[i]);
+        Bench.run("getDicount_2(IDiscount), metered", 1_000_000, () -> {
+            long total = 0;
+            for (IDiscount discount : metered) total += demo.getDicount_2(discount);
+            return total;
+        });
+    }
+}
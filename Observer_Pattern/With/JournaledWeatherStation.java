@@ -0,0 +1,70 @@
+package Observer_Pattern.With;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * WeatherStation that writes every reading to a ReadingJournal before notifying displays.
+ * With the journal's default sync policy (syncEvery = 1) a reading is on disk before any display sees it.
+ * A display that joins late, or comes back after a restart, first replays the journal from a given time
+ * and is then added to the live list. The station is single-threaded, so no reading can slip in between
+ * replay and subscription.
+ */
+public class JournaledWeatherStation extends WeatherStation {
+    private final ReadingJournal journal;
+
+    JournaledWeatherStation(double temperature, ReadingJournal journal) {
+        super(temperature);
+        this.journal = journal;
+    }
+
+    // Records a new reading and pushes it to all displays; a reading the journal rejects changes nothing
+    public void publish(long timeMillis, double temperature) {
+        try {
+            journal.append(timeMillis, temperature);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        this.temperature = temperature;
+        updateDisplay();
+    }
+
+    // Replays history since fromTimeMillis, then the observer gets live updates
+    public void addObserver(Observer observer, long fromTimeMillis) {
+        journal.replayFrom(fromTimeMillis, observer);
+        addObserver(observer);
+    }
+
+    public static void main(String[] args) {
+        try {
+            demo();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void demo() throws IOException {
+        Path file = Files.createTempFile("readings", ".journal");
+        try (ReadingJournal journal = new ReadingJournal(file)) {
+            JournaledWeatherStation station = new JournaledWeatherStation(25.0, journal);
+            station.addObserver(new MobileDisplay());
+            station.publish(1000, 25.0);
+            station.publish(2000, 26.5);
+            station.publish(3000, 24.0);
+
+            // LED display joins late but still sees the readings from time 2000
+            station.addObserver(new LEDDisplay(), 2000);
+            station.publish(4000, 23.5);
+        }
+
+        // Reopen after a "restart", history is still there
+        try (ReadingJournal journal = new ReadingJournal(file)) {
+            System.out.println("Readings after reopen: " + journal.size());
+            journal.replay(0, new LEDDisplay());
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
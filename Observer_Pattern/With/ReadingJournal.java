@@ -0,0 +1,157 @@
+package Observer_Pattern.With;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Append-only journal of temperature readings in a memory-mapped file, so a display that joins late
+ * (or restarts) can replay history before it gets live updates.
+ *
+ * File layout: 8 byte header with the number of committed readings, then fixed 16 byte records
+ * (long timeMillis, double temperature). Fixed size records mean reading n is at HEADER + n * 16,
+ * so the only index needed is a sparse time index (one entry every INDEX_STRIDE readings) kept in memory
+ * and rebuilt on open. Times must never go backwards.
+ *
+ * Durability: the header only ever counts readings that are already on disk. With syncEvery = n > 0 the
+ * new records are forced first, then the header, every n readings (and on flush/close), so after an OS
+ * crash at most the last n - 1 readings are lost and the header never covers garbage. syncEvery = 0 moves
+ * the header on every append and leaves writing to the OS: survives a process crash, not an OS crash.
+ * Single writer; not thread-safe.
+ */
+public class ReadingJournal implements Closeable {
+
+    static final int HEADER = 8;
+    static final int RECORD = 16;
+    static final int INDEX_STRIDE = 4096;
+    static final long MAX_CAPACITY = (Integer.MAX_VALUE - HEADER) / RECORD; // one mapping is at most 2 GB
+
+    private final FileChannel channel;
+    private MappedByteBuffer buffer;
+    private long count;
+    private long durableCount;          // what the header on disk says
+    private final int syncEvery;
+
+    // indexTime[i] is the time of reading i * INDEX_STRIDE
+    private long[] indexTime = new long[16];
+    private int indexSize;
+
+    // Every reading is on disk before append returns
+    public ReadingJournal(Path file) throws IOException {
+        this(file, 1 << 20, 1);
+    }
+
+    public ReadingJournal(Path file, int initialCapacity, int syncEvery) throws IOException {
+        if (initialCapacity < 1) throw new IllegalArgumentException("initialCapacity must be >= 1: " + initialCapacity);
+        if (syncEvery < 0) throw new IllegalArgumentException("syncEvery must be >= 0: " + syncEvery);
+        this.syncEvery = syncEvery;
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long existing = channel.size() >= HEADER ? (channel.size() - HEADER) / RECORD : 0;
+        map(Math.min(MAX_CAPACITY, Math.max(initialCapacity, existing)));
+        count = durableCount = channel.size() >= HEADER ? buffer.getLong(0) : 0;
+        for (long seq = 0; seq < count; seq += INDEX_STRIDE) {
+            addIndex(time(seq));
+        }
+    }
+
+    private void map(long capacity) throws IOException {
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER + capacity * RECORD);
+    }
+
+    private long capacity() {
+        return (buffer.capacity() - HEADER) / RECORD;
+    }
+
+    private void addIndex(long time) {
+        if (indexSize == indexTime.length) indexTime = Arrays.copyOf(indexTime, indexSize * 2);
+        indexTime[indexSize++] = time;
+    }
+
+    // Returns the sequence number of the reading
+    public long append(long timeMillis, double temperature) throws IOException {
+        if (count > 0 && timeMillis < time(count - 1)) {
+            throw new IllegalArgumentException("Reading time " + timeMillis + " is before last reading " + time(count - 1));
+        }
+        if (count == capacity()) {
+            if (count == MAX_CAPACITY) throw new IOException("Journal full: " + count + " readings");
+            map(Math.min(MAX_CAPACITY, capacity() * 2));
+        }
+        int position = (int) (HEADER + count * RECORD);
+        buffer.putLong(position, timeMillis);
+        buffer.putDouble(position + 8, temperature);
+        if (count % INDEX_STRIDE == 0) addIndex(timeMillis);
+        count++;
+        if (syncEvery == 0) buffer.putLong(0, count);
+        else if (count - durableCount >= syncEvery) sync();
+        return count - 1;
+    }
+
+    // Forces the new records to disk, then moves the header over them and forces it too
+    public void sync() {
+        if (count > durableCount) {
+            int from = (int) (HEADER + durableCount * RECORD);
+            buffer.force(from, (int) ((count - durableCount) * RECORD));
+        }
+        buffer.putLong(0, count);
+        buffer.force(0, HEADER);
+        durableCount = count;
+    }
+
+    public long size() {
+        return count;
+    }
+
+    public long time(long seq) {
+        return buffer.getLong((int) (HEADER + seq * RECORD));
+    }
+
+    public double temperature(long seq) {
+        return buffer.getDouble((int) (HEADER + seq * RECORD + 8));
+    }
+
+    // First reading with time >= timeMillis (size() if there is none)
+    public long seek(long timeMillis) {
+        // first index entry with time >= timeMillis, the answer can start in the block just before it
+        int low = 0, high = indexSize;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (indexTime[mid] < timeMillis) low = mid + 1;
+            else high = mid;
+        }
+        // then the same search over the records of that block
+        long from = (long) Math.max(0, low - 1) * INDEX_STRIDE;
+        long to = Math.min(count, (long) low * INDEX_STRIDE);
+        while (from < to) {
+            long mid = (from + to) >>> 1;
+            if (time(mid) < timeMillis) from = mid + 1;
+            else to = mid;
+        }
+        return from;
+    }
+
+    // Sends readings [fromSeq, size()) to the observer in order, returns the next sequence number
+    public long replay(long fromSeq, Observer observer) {
+        long end = count;
+        for (long seq = fromSeq; seq < end; seq++) {
+            observer.updateDisplay(temperature(seq));
+        }
+        return end;
+    }
+
+    public long replayFrom(long timeMillis, Observer observer) {
+        return replay(seek(timeMillis), observer);
+    }
+
+    public void flush() {
+        sync();
+    }
+
+    public void close() throws IOException {
+        flush();
+        channel.close();
+    }
+}
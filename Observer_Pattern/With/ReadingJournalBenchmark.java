@@ -0,0 +1,72 @@
+package Observer_Pattern.With;
+
+import benchmark.Bench;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+// ReadingJournal append throughput, replay speed and seek by time (16 bytes per reading).
+public class ReadingJournalBenchmark {
+
+    static final int READINGS = 1_000_000;
+
+    static class SumDisplay implements Observer {
+        double sum;
+        public void updateDisplay(double temperature) {
+            sum += temperature;
+        }
+    }
+
+    public static void main(String[] args) {
+        try {
+            run();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void run() throws IOException {
+        Path file = Files.createTempFile("readings", ".journal");
+        try (ReadingJournal journal = new ReadingJournal(file, READINGS * 4, 0)) {
+            Bench.header("Observer ReadingJournal");
+            long[] time = {0};
+            Bench.run("append, OS writes back (syncEvery 0)", READINGS, () -> {
+                try {
+                    return journal.append(time[0]++, 20.0 + (time[0] & 15));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+
+            SumDisplay display = new SumDisplay();
+            long start = System.nanoTime();
+            journal.replay(0, display);
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf("replay %d readings: %.1f M readings/sec, %.0f MB/sec%n", journal.size(),
+                    journal.size() / seconds / 1e6, journal.size() * ReadingJournal.RECORD / seconds / 1e6);
+
+            Bench.run("replay whole journal", 20, () -> journal.replay(0, display));
+            Bench.run("seek by time", 1_000_000, () -> journal.seek(time[0]++ % journal.size()));
+        } finally {
+            Files.delete(file);
+        }
+
+        for (int syncEvery : new int[]{1000, 1}) {
+            Path synced = Files.createTempFile("readings", ".journal");
+            try (ReadingJournal journal = new ReadingJournal(synced, READINGS, syncEvery)) {
+                long[] time = {0};
+                Bench.run("append, syncEvery " + syncEvery, syncEvery == 1 ? 2_000 : 200_000, () -> {
+                    try {
+                        return journal.append(time[0]++, 20.0);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } finally {
+                Files.delete(synced);
+            }
+        }
+    }
+}
@@ -0,0 +1,415 @@
+package Observer_Pattern.With;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Runs many WeatherStations in one JVM, split by station id over one shard per core.
+ * Each shard is a single thread that owns its WeatherStations and their observer lists, so no locks are
+ * needed on them. Other threads never touch that state: they put commands (readings, subscribe,
+ * unsubscribe) on the shard's lock-free queue, and the shard drains them in batches.
+ * Observers are called on the shard thread of their station. An observer that throws is counted
+ * (failures(), lastFailure()) and skipped; the shard keeps running.
+ * close() applies everything already queued, after that every call throws IllegalStateException.
+ */
+public class StationHub implements AutoCloseable {
+
+    private final Shard[] shards;
+    private volatile boolean closed;
+
+    public StationHub() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public StationHub(int shardCount) {
+        shards = new Shard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new Shard(i);
+            shards[i].thread.start();
+        }
+    }
+
+    int shardOf(long stationId) {
+        long h = stationId * 0x9E3779B97F4A7C15L; // spread sequential ids evenly
+        return (int) Math.floorMod(h ^ (h >>> 32), (long) shards.length);
+    }
+
+    public int shardCount() {
+        return shards.length;
+    }
+
+    public void subscribe(long stationId, Observer observer) {
+        subscribe(new long[]{stationId}, new Observer[]{observer}, 1);
+    }
+
+    public void unsubscribe(long stationId, Observer observer) {
+        unsubscribe(new long[]{stationId}, new Observer[]{observer}, 1);
+    }
+
+    // observers[i] subscribes to stationIds[i], one queue entry per shard like publish()
+    public void subscribe(long[] stationIds, Observer[] observers, int count) {
+        sendSubscriptions(stationIds, observers, count, true);
+    }
+
+    public void unsubscribe(long[] stationIds, Observer[] observers, int count) {
+        sendSubscriptions(stationIds, observers, count, false);
+    }
+
+    private void sendSubscriptions(long[] stationIds, Observer[] observers, int count, boolean add) {
+        Subscribe[] batches = new Subscribe[shards.length];
+        for (int i = 0; i < count; i++) {
+            int shard = shardOf(stationIds[i]);
+            if (batches[shard] == null) batches[shard] = new Subscribe(count / shards.length + 8, add);
+            batches[shard].add(stationIds[i], observers[i]);
+        }
+        for (int shard = 0; shard < shards.length; shard++) {
+            if (batches[shard] != null) shards[shard].send(batches[shard]);
+        }
+    }
+
+    public void publish(long stationId, double temperature) {
+        publish(new long[]{stationId}, new double[]{temperature}, 1);
+    }
+
+    // Splits the readings by shard first, so each shard gets one queue entry per call
+    public void publish(long[] stationIds, double[] temperatures, int count) {
+        Readings[] batches = new Readings[shards.length];
+        for (int i = 0; i < count; i++) {
+            int shard = shardOf(stationIds[i]);
+            if (batches[shard] == null) batches[shard] = new Readings(count / shards.length + 8);
+            batches[shard].add(stationIds[i], temperatures[i]);
+        }
+        for (int shard = 0; shard < shards.length; shard++) {
+            if (batches[shard] != null) shards[shard].send(batches[shard]);
+        }
+    }
+
+    // Waits until every command sent before this call has been applied
+    public void flush() throws InterruptedException {
+        if (closed) throw new IllegalStateException("StationHub is closed");
+        CountDownLatch done = new CountDownLatch(shards.length);
+        for (Shard shard : shards) shard.send(new Flush(done));
+        done.await();
+    }
+
+    public long stationCount() {
+        long count = 0;
+        for (Shard shard : shards) count += shard.stationCount;
+        return count;
+    }
+
+    public long readingsApplied() {
+        long count = 0;
+        for (Shard shard : shards) count += shard.readings.sum();
+        return count;
+    }
+
+    // Commands (or observer calls) that threw
+    public long failures() {
+        long count = 0;
+        for (Shard shard : shards) count += shard.failures.sum();
+        return count;
+    }
+
+    // The last failure of the first shard that had one (each shard keeps only its last), null if none
+    public RuntimeException lastFailure() {
+        for (Shard shard : shards) {
+            RuntimeException failure = shard.lastFailure;
+            if (failure != null) return failure;
+        }
+        return null;
+    }
+
+    // Applies what is already queued, then stops the shard threads
+    public void close() {
+        closed = true;
+        for (Shard shard : shards) {
+            shard.running = false;
+            LockSupport.unpark(shard.thread);
+        }
+        for (Shard shard : shards) joinQuietly(shard.thread);
+    }
+
+    // join() that keeps waiting when interrupted and restores the flag afterwards
+    static void joinQuietly(Thread thread) {
+        boolean interrupted = false;
+        while (thread.isAlive()) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) Thread.currentThread().interrupt();
+    }
+
+    // ---- commands, applied on the shard thread ----
+
+    interface Command {
+        void apply(Shard shard);
+    }
+
+    static final class Readings implements Command {
+        long[] ids;
+        double[] temperatures;
+        int size;
+
+        Readings(int capacity) {
+            ids = new long[capacity];
+            temperatures = new double[capacity];
+        }
+
+        void add(long id, double temperature) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                temperatures = Arrays.copyOf(temperatures, size * 2);
+            }
+            ids[size] = id;
+            temperatures[size++] = temperature;
+        }
+
+        public void apply(Shard shard) {
+            for (int i = 0; i < size; i++) {
+                WeatherStation station = shard.station(ids[i], temperatures[i]);
+                station.temperature = temperatures[i];
+                // same as station.updateDisplay(), but one bad display must not stop the others
+                for (Observer observer : station.allDisplay) {
+                    try {
+                        observer.updateDisplay(temperatures[i]);
+                    } catch (RuntimeException e) {
+                        shard.report(e);
+                    }
+                }
+            }
+            shard.readings.add(size);
+        }
+    }
+
+    static final class Subscribe implements Command {
+        long[] ids;
+        Observer[] observers;
+        int size;
+        final boolean add;
+
+        Subscribe(int capacity, boolean add) {
+            ids = new long[capacity];
+            observers = new Observer[capacity];
+            this.add = add;
+        }
+
+        void add(long id, Observer observer) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                observers = Arrays.copyOf(observers, size * 2);
+            }
+            ids[size] = id;
+            observers[size++] = observer;
+        }
+
+        public void apply(Shard shard) {
+            for (int i = 0; i < size; i++) {
+                if (add) {
+                    shard.station(ids[i], 0).addObserver(observers[i]);
+                } else {
+                    WeatherStation station = shard.stations.get(ids[i]); // unknown id: nothing to remove
+                    if (station != null) station.removeObserver(observers[i]);
+                }
+            }
+        }
+    }
+
+    static final class Flush implements Command {
+        final CountDownLatch done;
+
+        Flush(CountDownLatch done) {
+            this.done = done;
+        }
+
+        public void apply(Shard shard) {
+            done.countDown();
+        }
+    }
+
+    // ---- one shard = one thread + the stations it owns ----
+
+    static final class Shard implements Runnable {
+        final Thread thread;
+        final ConcurrentLinkedQueue<Command> queue = new ConcurrentLinkedQueue<>();
+        final StationTable stations = new StationTable(); // only touched by thread
+        final LongAdder readings = new LongAdder();
+        final LongAdder failures = new LongAdder();
+        volatile RuntimeException lastFailure;
+        volatile boolean running = true;
+        volatile boolean parked;
+        volatile long stationCount;
+
+        Shard(int index) {
+            thread = new Thread(this, "station-shard-" + index);
+            thread.setDaemon(true);
+        }
+
+        void send(Command command) {
+            if (!running) throw new IllegalStateException("StationHub is closed");
+            queue.offer(command);
+            // close() raced with us: once the thread is gone, take the command back if nobody applied it
+            if (!running) {
+                joinQuietly(thread);
+                if (queue.remove(command)) throw new IllegalStateException("StationHub is closed");
+            }
+            if (parked) LockSupport.unpark(thread);
+        }
+
+        // No printing: System.err is one locked stream shared by every shard
+        void report(RuntimeException e) {
+            failures.increment();
+            lastFailure = e;
+        }
+
+        WeatherStation station(long id, double temperature) {
+            WeatherStation station = stations.get(id);
+            if (station == null) {
+                station = new WeatherStation(temperature);
+                stations.put(id, station);
+                stationCount = stations.size;
+            }
+            return station;
+        }
+
+        public void run() {
+            List<Command> batch = new ArrayList<>(256);
+            while (running) {
+                if (drain(batch) == 0) {
+                    parked = true;
+                    if (queue.isEmpty() && running) LockSupport.parkNanos(this, 1_000_000);
+                    parked = false;
+                }
+            }
+            while (drain(batch) > 0) {
+                // apply what was queued before close()
+            }
+        }
+
+        private int drain(List<Command> batch) {
+            Command command;
+            while (batch.size() < 256 && (command = queue.poll()) != null) batch.add(command);
+            for (Command c : batch) {
+                try {
+                    c.apply(this);
+                } catch (RuntimeException e) {
+                    report(e);
+                }
+            }
+            int count = batch.size();
+            batch.clear();
+            return count;
+        }
+    }
+
+    static class CountingDisplay implements Observer {
+        long updates;
+        public void updateDisplay(double temperature) {
+            updates++;
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int stations = args.length > 0 ? Integer.parseInt(args[0]) : 50_000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+        int cores = Runtime.getRuntime().availableProcessors();
+
+        for (int shardCount : new int[]{1, cores}) {
+            try (StationHub hub = new StationHub(shardCount)) {
+                long[] ids = new long[stations];
+                double[] temperatures = new double[stations];
+                Observer[] displays = new Observer[stations];
+                for (int i = 0; i < stations; i++) {
+                    ids[i] = i;
+                    temperatures[i] = 20 + i % 10;
+                    displays[i] = new CountingDisplay();
+                }
+                hub.subscribe(ids, displays, stations);
+                for (int r = 0; r < rounds / 5; r++) hub.publish(ids, temperatures, stations); // warm up
+                hub.flush();
+
+                long start = System.nanoTime();
+                for (int r = 0; r < rounds; r++) hub.publish(ids, temperatures, stations);
+                hub.flush();
+                double seconds = (System.nanoTime() - start) / 1e9;
+
+                System.out.printf("%d shards, %d stations: %.1f M readings/sec%n",
+                        shardCount, hub.stationCount(), (double) rounds * stations / seconds / 1e6);
+            }
+            if (cores == 1) break;
+        }
+    }
+}
+
+// long id -> WeatherStation, open addressing with linear probing, so lookups do not box the id.
+// Slots come from the id like HashMap's (sequential ids fill neighbouring slots, no collisions); if
+// the ids turn out to be strided and a probe run gets long, the table switches to a mixed hash once.
+// Stations are never removed.
+class StationTable {
+    static final int MAX_PROBE = 16;
+
+    private long[] ids = new long[64];
+    private WeatherStation[] stations = new WeatherStation[64];
+    private boolean mixed;
+    int size;
+
+    WeatherStation get(long id) {
+        int mask = ids.length - 1;
+        for (int i = slot(id, mask); stations[i] != null; i = (i + 1) & mask) {
+            if (ids[i] == id) return stations[i];
+        }
+        return null;
+    }
+
+    // id must not be in the table yet
+    void put(long id, WeatherStation station) {
+        if (size * 2 >= ids.length) rehash(ids.length * 2); // at most half full
+        if (insert(id, station) > MAX_PROBE && !mixed) {
+            mixed = true;
+            rehash(ids.length);
+        }
+        size++;
+    }
+
+    private void rehash(int capacity) {
+        long[] oldIds = ids;
+        WeatherStation[] oldStations = stations;
+        ids = new long[capacity];
+        stations = new WeatherStation[capacity];
+        for (int i = 0; i < oldIds.length; i++) {
+            if (oldStations[i] != null) insert(oldIds[i], oldStations[i]);
+        }
+    }
+
+    // Returns the number of occupied slots it had to skip
+    private int insert(long id, WeatherStation station) {
+        int mask = ids.length - 1;
+        int i = slot(id, mask);
+        int probes = 0;
+        while (stations[i] != null) {
+            i = (i + 1) & mask;
+            probes++;
+        }
+        ids[i] = id;
+        stations[i] = station;
+        return probes;
+    }
+
+    private int slot(long id, int mask) {
+        int h = Long.hashCode(id);
+        if (mixed) {
+            h *= 0x85ebca6b;
+            h ^= h >>> 13;
+            h *= 0xc2b2ae35;
+        }
+        return (h ^ (h >>> 16)) & mask;
+    }
+}
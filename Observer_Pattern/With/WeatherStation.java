@@ -1,5 +1,9 @@
 package Observer_Pattern.With;
 
+import metrics.Counter;
+import metrics.Metrics;
+import metrics.Timer;
+
 import java.util.ArrayList;
 import java.util.List;
 
@@ -59,3 +63,44 @@ class LEDDisplay implements Observer{
         System.out.println("LED Display Temerature : "+temperature);
     }
 }
+
+// Decorator: times the whole fan-out and each display on its own
+class MeteredWeatherStation extends WeatherStation{
+    private final Timer timer = Metrics.timer("weatherStation.updateDisplay");
+    private final Counter notifications = Metrics.counter("weatherStation.notifications");
+
+    MeteredWeatherStation(double temperature){
+        super(temperature);
+    }
+
+    public void addObserver(Observer observer){
+        super.addObserver(new MeteredObserver(observer));
+    }
+
+    public void removeObserver(Observer observer){
+        allDisplay.removeIf(display -> ((MeteredObserver) display).observer.equals(observer));
+    }
+
+    public void updateDisplay(){
+        long start = timer.start();
+        super.updateDisplay();
+        timer.stop(start);
+        notifications.add(allDisplay.size());
+    }
+}
+
+class MeteredObserver implements Observer{
+    final Observer observer;
+    private final Timer timer;
+
+    MeteredObserver(Observer observer){
+        this.observer = observer;
+        this.timer = Metrics.timer("observer." + observer.getClass().getSimpleName() + ".updateDisplay");
+    }
+
+    public void updateDisplay(double temperature) {
+        long start = timer.start();
+        observer.updateDisplay(temperature);
+        timer.stop(start);
+    }
+}
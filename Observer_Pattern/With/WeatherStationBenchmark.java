@@ -0,0 +1,29 @@
+package Observer_Pattern.With;
+
+import benchmark.Bench;
+
+// WeatherStation.updateDisplay with 1, 10 and 100 observers, and with MeteredWeatherStation.
+public class WeatherStationBenchmark {
+
+    public static void main(String[] args) {
+        Bench.header("Observer WeatherStation.updateDisplay");
+        for (int count : new int[]{1, 10, 100}) {
+            WeatherStation station = new WeatherStation(25.0);
+            for (int i = 0; i < count; i++) {
+                station.addObserver(i % 2 == 0 ? new MobileDisplay() : new LEDDisplay());
+            }
+            Bench.run("updateDisplay, " + count + " observers", count >= 100 ? 5_000 : 100_000, () -> {
+                station.updateDisplay();
+                return 1;
+            });
+        }
+        WeatherStation metered = new MeteredWeatherStation(25.0);
+        for (int i = 0; i < 10; i++) {
+            metered.addObserver(i % 2 == 0 ? new MobileDisplay() : new LEDDisplay());
+        }
+        Bench.run("updateDisplay, 10 metered observers", 100_000, () -> {
+            metered.updateDisplay();
+            return 1;
+        });
+    }
+}
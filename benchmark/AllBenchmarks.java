@@ -0,0 +1,86 @@
+package benchmark;
+
+import metrics.Metrics;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Quick runner for every *Benchmark / demo main in the repo (the JMH module in jmh/ is the one to trust
+ * for ns-scale numbers). Each benchmark runs in its own JVM so JIT profiles do not leak from one to the next.
+ *
+ * javac -encoding UTF-8 -d out $(find . -name "*.java" -not -path "./jmh/*" -not -path "./test/*")
+ * java -cp out benchmark.AllBenchmarks
+ *
+ * Each *Benchmark class also has its own main() to run it alone.
+ * Add -Dmetrics.disabled=true to see the Metered* decorators with metrics turned off.
+ * What the Metered* decorators record is appended to metrics-snapshot.txt.
+ */
+public class AllBenchmarks {
+
+    static final String[] BENCHMARKS = {
+            "DIP.Fixed_Code.ApplicationBenchmark",
+            "Observer_Pattern.With.WeatherStationBenchmark",
+            "Decorative_Pattern.With.CoffeeBenchmark",
+            "OCP.DiscountBenchmark",
+            "builder_pattern.BuilderBenchmark",
+            "LSP.VehicleFleetBenchmark",
+            "LSP.FleetSimulation",
+            "ISP.Bad_Code.CapabilityBenchmark",
+            "ISP.Fixed_Code.CapabilityBenchmark",
+            "Observer_Pattern.With.ReadingJournalBenchmark",
+            "Observer_Pattern.With.StationHub",
+            "DIP.Fixed_Code.LogStoreBenchmark",
+            "Decorative_Pattern.With.OrderPipeline"
+    };
+
+    static final Path SNAPSHOT = Paths.get("metrics-snapshot.txt");
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 2 && args[0].equals("--one")) {
+            runOne(args[1]);
+            return;
+        }
+        Files.deleteIfExists(SNAPSHOT);
+        String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        for (String benchmark : BENCHMARKS) {
+            List<String> command = new ArrayList<>();
+            command.add(java);
+            if (!Metrics.ENABLED) command.add("-Dmetrics.disabled=true");
+            command.add("-cp");
+            command.add(System.getProperty("java.class.path"));
+            command.add(AllBenchmarks.class.getName());
+            command.add("--one");
+            command.add(benchmark);
+            int exit = new ProcessBuilder(command).inheritIO().start().waitFor();
+            if (exit != 0) System.out.println(benchmark + " failed with exit code " + exit);
+        }
+        if (Files.exists(SNAPSHOT)) {
+            System.out.println();
+            System.out.println("Metrics snapshot written to " + SNAPSHOT.toAbsolutePath());
+        }
+    }
+
+    private static void runOne(String className) throws ReflectiveOperationException, IOException {
+        System.out.println();
+        System.out.println("#### " + className);
+        try {
+            Class.forName(className).getMethod("main", String[].class).invoke(null, (Object) new String[0]);
+        } catch (InvocationTargetException e) {
+            if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+            throw e;
+        }
+        List<String> lines = Metrics.snapshot();
+        if (!lines.isEmpty()) {
+            lines.add(0, "# " + className);
+            Files.write(SNAPSHOT, lines, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        }
+    }
+}
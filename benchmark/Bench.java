@@ -0,0 +1,77 @@
+package benchmark;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Very small benchmark harness (no JMH needed, plain javac is enough).
+ * For each run it prints time per op, bytes allocated per op and GC count/time, so every
+ * pattern in the repo has a baseline to compare against.
+ * System.out is muted while running because most demo classes print on every call.
+ * Good for a quick look only: all ops share one call site and there is no forking, so ns-scale
+ * results should come from the JMH module in jmh/ instead.
+ */
+public class Bench {
+
+    public interface Op {
+        long run();
+    }
+
+    private static final PrintStream MUTED = new PrintStream(OutputStream.nullOutputStream());
+    private static long sink; // results go here so the JIT cannot drop the measured code
+
+    public static void header(String title) {
+        System.out.println();
+        System.out.println("== " + title);
+        System.out.printf("%-40s %12s %12s %8s %8s%n", "benchmark", "ns/op", "B/op", "gc.count", "gc.ms");
+    }
+
+    public static void run(String name, int iterations, Op op) {
+        PrintStream out = System.out;
+        System.setOut(MUTED);
+        try {
+            for (int i = 0; i < iterations; i++) sink += op.run(); // warm up
+
+            long gcCount = gcCount(), gcTime = gcTime();
+            long allocated = allocatedBytes();
+            long start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) sink += op.run();
+            long nanos = System.nanoTime() - start;
+            long bytes = allocatedBytes() - allocated;
+
+            out.printf("%-40s %12.1f %12s %8d %8d%n", name,
+                    (double) nanos / iterations,
+                    allocated < 0 ? "n/a" : String.format("%.1f", (double) bytes / iterations),
+                    gcCount() - gcCount, gcTime() - gcTime);
+        } finally {
+            System.setOut(out);
+        }
+    }
+
+    private static long allocatedBytes() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (threads instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) threads).getCurrentThreadAllocatedBytes();
+        }
+        return -1;
+    }
+
+    private static long gcCount() {
+        long count = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, gc.getCollectionCount());
+        }
+        return count;
+    }
+
+    private static long gcTime() {
+        long time = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            time += Math.max(0, gc.getCollectionTime());
+        }
+        return time;
+    }
+}
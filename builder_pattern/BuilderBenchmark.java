@@ -0,0 +1,17 @@
+package builder_pattern;
+
+import benchmark.Bench;
+
+// Cost of building Person and User through their builders.
+public class BuilderBenchmark {
+
+    public static void main(String[] args) {
+        Bench.header("Builder");
+        Bench.run("Person, mandatory only", 1_000_000,
+                () -> new Person.PersonBuilder("Binod", "9999").build().hashCode());
+        Bench.run("Person, all fields", 1_000_000,
+                () -> new Person.PersonBuilder("Binod", "9999").city("Bangalore").county("India").build().hashCode());
+        Bench.run("User, all fields", 1_000_000,
+                () -> new User.UserBuilder("abc", "dde").age(30).phone("9999").address("Bangalore").build().hashCode());
+    }
+}
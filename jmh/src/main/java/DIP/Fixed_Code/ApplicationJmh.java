@@ -0,0 +1,59 @@
+package DIP.Fixed_Code;
+
+import benchmark.Stdout;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Application.userProcess fan-out, plain loggers and MeteredLogger.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class ApplicationJmh {
+
+    @Param({"1", "3", "10"})
+    int loggers;
+
+    Application app;
+    Application meteredApp;
+
+    @Setup
+    public void setUp() {
+        Stdout.mute();
+        app = ApplicationBenchmark.withLoggers(loggers);
+        List<Logger> metered = new ArrayList<>();
+        for (Logger logger : app.loggers) metered.add(new MeteredLogger(logger));
+        meteredApp = new Application(metered);
+    }
+
+    @TearDown
+    public void tearDown() {
+        Stdout.restore();
+    }
+
+    @Benchmark
+    public void userProcess() {
+        app.userProcess("bench_user");
+    }
+
+    @Benchmark
+    public void userProcessMetered() {
+        meteredApp.userProcess("bench_user");
+    }
+}
@@ -0,0 +1,50 @@
+package Decorative_Pattern.With;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// getCost/getDescription and construction of Coffee decorator chains.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class CoffeeJmh {
+
+    @Param({"1", "4", "32"})
+    int depth;
+
+    Coffee coffee;
+
+    @Setup
+    public void setUp() {
+        coffee = CoffeeBenchmark.chain(depth);
+    }
+
+    @Benchmark
+    public int getCost() {
+        return coffee.getCost();
+    }
+
+    @Benchmark
+    public String getDescription() {
+        return coffee.getDescription();
+    }
+
+    @Benchmark
+    public Coffee build() {
+        return CoffeeBenchmark.chain(depth);
+    }
+}
@@ -0,0 +1,49 @@
+package ISP.Bad_Code;
+
+import benchmark.Stdout;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// Exception probing vs WorkerCapabilities (see CapabilityBenchmark).
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class CapabilityJmh {
+
+    Worker[] workers;
+
+    @Setup
+    public void setUp() {
+        Stdout.mute();
+        workers = new Worker[]{new Developer(), new Designer(), new Robot(), new Developer()};
+    }
+
+    @TearDown
+    public void tearDown() {
+        Stdout.restore();
+    }
+
+    @Benchmark
+    public int exceptionProbing() {
+        return CapabilityBenchmark.probe(workers);
+    }
+
+    @Benchmark
+    public int capabilityLookup() {
+        return CapabilityBenchmark.lookup(workers);
+    }
+}
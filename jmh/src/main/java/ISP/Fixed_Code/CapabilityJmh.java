@@ -0,0 +1,66 @@
+package ISP.Fixed_Code;
+
+import benchmark.Stdout;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// WorkerCapabilities vs plain type checks (see CapabilityBenchmark).
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class CapabilityJmh {
+
+    Object[] workers;
+    WorkerCapabilities.Capability capability;
+
+    @Setup
+    public void setUp() {
+        Stdout.mute();
+        workers = new Object[]{new Developer(), new Designer(), new Robot(), new Developer()};
+        capability = WorkerCapabilities.Capability.DESIGN;
+    }
+
+    @TearDown
+    public void tearDown() {
+        Stdout.restore();
+    }
+
+    @Benchmark
+    public int checkInstanceof() {
+        return CapabilityBenchmark.checkInstanceof(workers);
+    }
+
+    @Benchmark
+    public int checkIsInstance() {
+        return CapabilityBenchmark.checkIsInstance(workers, capability);
+    }
+
+    @Benchmark
+    public int checkLookup() {
+        return CapabilityBenchmark.checkLookup(workers, capability);
+    }
+
+    @Benchmark
+    public int callInstanceof() {
+        return CapabilityBenchmark.callInstanceof(workers);
+    }
+
+    @Benchmark
+    public int callLookup() {
+        return CapabilityBenchmark.callLookup(workers, capability);
+    }
+}
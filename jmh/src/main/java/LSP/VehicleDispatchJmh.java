@@ -0,0 +1,81 @@
+package LSP;
+
+import benchmark.Stdout;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Mixed-type loops vs VehicleFleet, speedUp and engineStart measured separately (see VehicleFleetBenchmark).
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class VehicleDispatchJmh {
+
+    @Param({"1000"})
+    int vehicles;
+
+    List<Runnable> speedUps;
+    List<Vehicle> vehicleList;
+    List<Movable> movableList;
+    VehicleFleet fleet;
+
+    @Setup
+    public void setUp() {
+        Stdout.mute();
+        speedUps = new ArrayList<>();
+        vehicleList = new ArrayList<>();
+        movableList = new ArrayList<>();
+        fleet = new VehicleFleet();
+        for (int i = 0; i < vehicles; i++) {
+            switch (i % 4) {
+                case 0: { Car v = new Car(); speedUps.add(v::speedUp); vehicleList.add(v); fleet.add(v); break; }
+                case 1: { Bicycle v = new Bicycle(); speedUps.add(v::speedUp); vehicleList.add(v); fleet.add(v); break; }
+                case 2: { Car2 v = new Car2(); speedUps.add(v::speedUp); movableList.add(v); fleet.add(v); break; }
+                default: { Bicycle2 v = new Bicycle2(); speedUps.add(v::speedUp); movableList.add(v); fleet.add(v); break; }
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        Stdout.restore();
+    }
+
+    @Benchmark
+    public int speedUpMegamorphic() {
+        return VehicleFleetBenchmark.naiveSpeedUp(speedUps);
+    }
+
+    @Benchmark
+    public void speedUpPartitioned() {
+        fleet.speedUp();
+    }
+
+    @Benchmark
+    public int engineStartNaive() {
+        return VehicleFleetBenchmark.naiveEngineStart(vehicleList, movableList);
+    }
+
+    @Benchmark
+    public void engineStartPartitioned(Blackhole blackhole) {
+        fleet.engineStart();
+        blackhole.consume(fleet);
+    }
+}
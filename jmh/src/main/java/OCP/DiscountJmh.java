@@ -0,0 +1,70 @@
+package OCP;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// getDicount string matching vs getDicount_2 through IDiscount.
+// Separate states: Cash is the fall-through branch of getDicount, there is no IDiscount for it.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class DiscountJmh {
+
+    @State(Scope.Benchmark)
+    public static class ByString {
+        @Param({"Debit", "Credit", "PayTM", "Cash"})
+        String pay;
+
+        Demo demo;
+        String payCopy;
+
+        @Setup
+        public void setUp() {
+            demo = new Demo();
+            payCopy = new String(pay); // equals() cannot short cut on the same reference
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class ByInterface {
+        @Param({"Debit", "Credit", "PayTM"})
+        String discount;
+
+        Demo demo;
+        IDiscount instance;
+
+        @Setup
+        public void setUp() {
+            demo = new Demo();
+            switch (discount) {
+                case "Debit": instance = new Debit(); break;
+                case "Credit": instance = new Credit(); break;
+                case "PayTM": instance = new PayTM(); break;
+                default: throw new IllegalArgumentException("No IDiscount for " + discount);
+            }
+        }
+    }
+
+    @Benchmark
+    public int byString(ByString state) {
+        return state.demo.getDicount(state.payCopy);
+    }
+
+    @Benchmark
+    public int byInterface(ByInterface state) {
+        return state.demo.getDicount_2(state.instance);
+    }
+}
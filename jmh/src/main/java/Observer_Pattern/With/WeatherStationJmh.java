@@ -0,0 +1,51 @@
+package Observer_Pattern.With;
+
+import benchmark.Stdout;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// WeatherStation.updateDisplay with N observers.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class WeatherStationJmh {
+
+    @Param({"1", "10", "100"})
+    int observers;
+
+    WeatherStation station;
+
+    @Setup
+    public void setUp() {
+        Stdout.mute();
+        station = new WeatherStation(25.0);
+        for (int i = 0; i < observers; i++) {
+            station.addObserver(i % 2 == 0 ? new MobileDisplay() : new LEDDisplay());
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        Stdout.restore();
+    }
+
+    @Benchmark
+    public void updateDisplay() {
+        station.updateDisplay();
+    }
+}
@@ -0,0 +1,38 @@
+package benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+
+/**
+ * Main class of benchmarks.jar. Same command line as the normal JMH main (-h, -l, -lp, -lprof, -lrf
+ * included), but runs always add the GC profiler, so every result comes with its allocation rate
+ * (gc.alloc.rate.norm = bytes per op).
+ */
+public class JmhRunner {
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException, IOException {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        if (commandLine.shouldHelp()) {
+            commandLine.showHelp();
+        } else if (commandLine.shouldList()) {
+            new Runner(commandLine).list();
+        } else if (commandLine.shouldListWithParams()) {
+            new Runner(commandLine).listWithParams(commandLine);
+        } else if (commandLine.shouldListProfilers()) {
+            commandLine.listProfilers();
+        } else if (commandLine.shouldListResultFormats()) {
+            commandLine.listResultFormats();
+        } else {
+            new Runner(new OptionsBuilder()
+                    .parent(commandLine)
+                    .addProfiler(GCProfiler.class)
+                    .build()).run();
+        }
+    }
+}
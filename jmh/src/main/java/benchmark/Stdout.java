@@ -0,0 +1,19 @@
+package benchmark;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+
+// Most examples print on every call, benchmarks mute System.out in @Setup and restore it in @TearDown.
+public class Stdout {
+    private static PrintStream original;
+
+    public static void mute() {
+        if (original == null) original = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    public static void restore() {
+        if (original != null) System.setOut(original);
+        original = null;
+    }
+}
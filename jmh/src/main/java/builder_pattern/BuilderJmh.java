@@ -0,0 +1,41 @@
+package builder_pattern;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// Person and User construction through their builders.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class BuilderJmh {
+
+    String name = "Binod";
+    String phone = "9999";
+
+    @Benchmark
+    public Person personMandatory() {
+        return new Person.PersonBuilder(name, phone).build();
+    }
+
+    @Benchmark
+    public Person personAllFields() {
+        return new Person.PersonBuilder(name, phone).city("Bangalore").county("India").build();
+    }
+
+    @Benchmark
+    public User userAllFields() {
+        return new User.UserBuilder(name, "dde").age(30).phone(phone).address("Bangalore").build();
+    }
+}
@@ -0,0 +1,37 @@
+package metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+// Striped counter, cheap to increment from many threads at once.
+public class Counter {
+    private final String name;
+    private final LongAdder count = new LongAdder();
+
+    Counter(String name) {
+        this.name = name;
+    }
+
+    public void increment() {
+        if (Metrics.ENABLED) count.increment();
+    }
+
+    public void add(long value) {
+        if (Metrics.ENABLED) count.add(value);
+    }
+
+    public long count() {
+        return count.sum();
+    }
+
+    public String name() {
+        return name;
+    }
+
+    void reset() {
+        count.reset();
+    }
+
+    public String toString() {
+        return name + " count=" + count();
+    }
+}
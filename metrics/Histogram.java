@@ -0,0 +1,89 @@
+package metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * HDR-style latency histogram: one bucket group per power of two, each split into 16 linear
+ * sub-buckets, so any recorded value is off by at most ~6%.
+ * Striped like LongAdder: each thread records into the stripe picked by its id, so threads hitting the
+ * same bucket (usually the p50 one) do not fight over one counter. Stripes are created on first use
+ * and added up when read. Recording never allocates after that.
+ */
+public class Histogram {
+    static final int SUB_BUCKET_BITS = 4;
+    static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    static final int BUCKETS = 64 * SUB_BUCKETS;
+    static final int STRIPES = Integer.highestOneBit(Runtime.getRuntime().availableProcessors()) * 4; // 2-4 per core, power of two
+
+    private final AtomicReferenceArray<AtomicLongArray> stripes = new AtomicReferenceArray<>(STRIPES);
+
+    public void record(long value) {
+        stripe().incrementAndGet(index(Math.max(0, value)));
+    }
+
+    private AtomicLongArray stripe() {
+        int i = (int) Thread.currentThread().getId() & (STRIPES - 1);
+        AtomicLongArray stripe = stripes.get(i);
+        if (stripe == null) {
+            stripes.compareAndSet(i, null, new AtomicLongArray(BUCKETS));
+            stripe = stripes.get(i);
+        }
+        return stripe;
+    }
+
+    static int index(long value) {
+        if (value < SUB_BUCKETS) return (int) value;
+        int magnitude = 63 - Long.numberOfLeadingZeros(value);         // >= SUB_BUCKET_BITS
+        int sub = (int) (value >>> (magnitude - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (magnitude - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    // Lowest value that lands in the bucket
+    static long valueOf(int index) {
+        if (index < SUB_BUCKETS) return index;
+        int magnitude = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        long sub = index % SUB_BUCKETS;
+        return (SUB_BUCKETS + sub) << (magnitude - SUB_BUCKET_BITS);
+    }
+
+    // All stripes added up
+    long[] merged() {
+        long[] buckets = new long[BUCKETS];
+        for (int s = 0; s < STRIPES; s++) {
+            AtomicLongArray stripe = stripes.get(s);
+            if (stripe == null) continue;
+            for (int i = 0; i < BUCKETS; i++) buckets[i] += stripe.get(i);
+        }
+        return buckets;
+    }
+
+    public long count() {
+        long count = 0;
+        for (long bucket : merged()) count += bucket;
+        return count;
+    }
+
+    // percentile from 0 to 100
+    public long percentile(double percentile) {
+        long[] buckets = merged();
+        long total = 0;
+        for (long bucket : buckets) total += bucket;
+        if (total == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(total * percentile / 100.0));
+        long seen = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            seen += buckets[i];
+            if (seen >= rank) return valueOf(i);
+        }
+        return valueOf(buckets.length - 1);
+    }
+
+    void reset() {
+        for (int s = 0; s < STRIPES; s++) {
+            AtomicLongArray stripe = stripes.get(s);
+            if (stripe == null) continue;
+            for (int i = 0; i < BUCKETS; i++) stripe.set(i, 0);
+        }
+    }
+}
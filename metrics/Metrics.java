@@ -0,0 +1,53 @@
+package metrics;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Shared registry of counters and timers used by the Metered* decorators.
+ *
+ * -Dmetrics.disabled=true : ENABLED is a static final false, so the JIT removes the timing code.
+ * -Dmetrics.jfr=true      : every timed call is also sent as a JFR event (only recorded when JFR is running).
+ */
+public class Metrics {
+
+    public static final boolean ENABLED = !Boolean.getBoolean("metrics.disabled");
+    public static final boolean JFR = ENABLED && Boolean.getBoolean("metrics.jfr");
+
+    private static final Map<String, Counter> COUNTERS = new ConcurrentHashMap<>();
+    private static final Map<String, Timer> TIMERS = new ConcurrentHashMap<>();
+
+    public static Counter counter(String name) {
+        return COUNTERS.computeIfAbsent(name, Counter::new);
+    }
+
+    public static Timer timer(String name) {
+        return TIMERS.computeIfAbsent(name, Timer::new);
+    }
+
+    // One line per metric, sorted by name
+    public static List<String> snapshot() {
+        List<String> lines = new ArrayList<>();
+        COUNTERS.values().forEach(counter -> lines.add(counter.toString()));
+        TIMERS.values().forEach(timer -> lines.add(timer.toString()));
+        lines.sort(null);
+        return lines;
+    }
+
+    public static void writeSnapshot(Path file) throws IOException {
+        List<String> lines = new ArrayList<>();
+        lines.add("# " + java.time.Instant.now());
+        lines.addAll(snapshot());
+        Files.write(file, lines);
+    }
+
+    public static void reset() {
+        COUNTERS.values().forEach(Counter::reset);
+        TIMERS.values().forEach(Timer::reset);
+    }
+}
@@ -0,0 +1,20 @@
+package metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+// JFR event sent by Timer.stop() when -Dmetrics.jfr=true
+@Name("lld.TimedCall")
+@Label("Timed Call")
+@Category("LLD")
+class TimedCallEvent extends Event {
+    @Label("Metric")
+    String metric;
+
+    @Label("Duration")
+    @Timespan(Timespan.NANOSECONDS)
+    long nanos;
+}
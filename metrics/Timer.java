@@ -0,0 +1,85 @@
+package metrics;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Call count, total time and latency histogram for one operation.
+ *
+ * long start = timer.start();
+ * ... work ...
+ * timer.stop(start);
+ */
+public class Timer {
+    private final String name;
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final Histogram histogram = new Histogram();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0); // exact, a bucket is up to ~6% low
+
+    Timer(String name) {
+        this.name = name;
+    }
+
+    public long start() {
+        return Metrics.ENABLED ? System.nanoTime() : 0;
+    }
+
+    public void stop(long start) {
+        if (!Metrics.ENABLED) return;
+        record(System.nanoTime() - start);
+    }
+
+    // For callers that already measured the duration themselves
+    public void record(long nanos) {
+        if (!Metrics.ENABLED) return;
+        count.increment();
+        totalNanos.add(nanos);
+        histogram.record(nanos);
+        maxNanos.accumulate(nanos);
+        if (Metrics.JFR) {
+            TimedCallEvent event = new TimedCallEvent();
+            if (event.shouldCommit()) {
+                event.metric = name;
+                event.nanos = nanos;
+                event.commit();
+            }
+        }
+    }
+
+    public long count() {
+        return count.sum();
+    }
+
+    public long totalNanos() {
+        return totalNanos.sum();
+    }
+
+    public long maxNanos() {
+        return maxNanos.get();
+    }
+
+    public Histogram histogram() {
+        return histogram;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    void reset() {
+        count.reset();
+        totalNanos.reset();
+        histogram.reset();
+        maxNanos.reset();
+    }
+
+    public String toString() {
+        long count = count();
+        return name + " count=" + count
+                + " avgNs=" + (count == 0 ? 0 : totalNanos() / count)
+                + " p50Ns=" + histogram.percentile(50)
+                + " p99Ns=" + histogram.percentile(99)
+                + " maxNs=" + maxNanos();
+    }
+}
@@ -0,0 +1,166 @@
+package DIP.Fixed_Code;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+// Segment/index format: reopen, recovery after a killed process, record encoding
+class LogStoreTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void reopenKeepsRecordsAndAppendsToNewSegment() throws IOException {
+        try (LogStore store = new LogStore(directory)) {
+            store.append(1, "alice", "login");
+            store.append(2, "bob", "login");
+            store.append(3, "alice", "logout");
+        }
+        try (LogStore store = new LogStore(directory)) {
+            assertEquals(3, store.lastTime());
+            assertEquals(List.of("1 [alice] login", "3 [alice] logout"), lines(store.query("alice", 0, 10)));
+            store.append(4, "bob", "logout");
+        }
+        try (LogStore store = new LogStore(directory)) {
+            assertEquals(List.of("2 [bob] login", "4 [bob] logout"), lines(store.query("bob", 0, 10)));
+        }
+        assertTrue(Files.exists(directory.resolve("segment-000000.idx")));
+        assertTrue(Files.exists(directory.resolve("segment-000001.idx")));
+    }
+
+    @Test
+    void killedAfterFlushKeepsFlushedRecords() throws IOException {
+        LogStore killed = new LogStore(directory);
+        killed.append(1, "alice", "flushed");
+        killed.flush();
+        killed.append(2, "alice", "lost"); // still in memory, no close(): the process is killed
+
+        try (LogStore store = new LogStore(directory)) {
+            assertEquals(List.of("1 [alice] flushed"), lines(store.query(null, 0, 10)));
+            store.append(3, "alice", "after restart");
+        }
+        try (LogStore store = new LogStore(directory)) {
+            assertEquals(List.of("1 [alice] flushed", "3 [alice] after restart"), lines(store.query("alice", 0, 10)));
+        }
+    }
+
+    @Test
+    void killedBeforeIndexRecoversWrittenBlocks() throws IOException {
+        LogStore killed = new LogStore(directory);
+        int appended = 3000; // ~4 blocks of ~100 byte records, none flushed
+        for (int i = 0; i < appended; i++) killed.append(i, "user" + (i % 7), "message number " + i + " ".repeat(60));
+        assertTrue(Files.notExists(directory.resolve("segment-000000.idx")));
+
+        try (LogStore store = new LogStore(directory)) {
+            List<LogStore.LogRecord> recovered = store.query(null, 0, Long.MAX_VALUE);
+            assertTrue(recovered.size() > 0 && recovered.size() < appended, "recovered " + recovered.size());
+            for (int i = 0; i < recovered.size(); i++) assertEquals(i, recovered.get(i).time);
+            assertEquals(recovered.size() - 1, store.lastTime());
+            assertEquals(recovered.stream().filter(r -> r.username.equals("user3")).count(),
+                    store.query("user3", 0, Long.MAX_VALUE).size());
+        }
+        assertTrue(Files.exists(directory.resolve("segment-000000.idx")));
+    }
+
+    @Test
+    void tornBlockIsCutOff() throws IOException {
+        try (LogStore store = new LogStore(directory)) {
+            store.append(1, "alice", "complete");
+        }
+        Path log = directory.resolve("segment-000000.log");
+        long length = Files.size(log);
+        try (RandomAccessFile file = new RandomAccessFile(log.toFile(), "rw")) {
+            file.seek(length);
+            file.writeInt(1000); // header of a block whose data never made it to disk
+            file.writeInt(2000);
+            file.writeInt(0);
+            file.write(new byte[10]);
+        }
+
+        try (LogStore store = new LogStore(directory)) {
+            assertEquals(length, Files.size(log));
+            assertEquals(List.of("1 [alice] complete"), lines(store.query(null, 0, 10)));
+            store.append(2, "alice", "next");
+        }
+        try (LogStore store = new LogStore(directory)) {
+            assertEquals(List.of("1 [alice] complete", "2 [alice] next"), lines(store.query("alice", 0, 10)));
+        }
+    }
+
+    @Test
+    void recordsLargerThanABlockRoundTrip() throws IOException {
+        String large = "é".repeat(200_000); // 400 KB of UTF-8, more than writeUTF and a block can hold
+        try (LogStore store = new LogStore(directory)) {
+            store.append(1, "alice", "small");
+            store.append(2, "bob", large);
+            store.append(3, "alice", "small again");
+            assertEquals(large, store.query("bob", 0, 10).get(0).message);
+        }
+        try (LogStore store = new LogStore(directory)) {
+            assertEquals(large, store.query("bob", 0, 10).get(0).message);
+            assertEquals(List.of("1 [alice] small", "3 [alice] small again"), lines(store.query("alice", 0, 10)));
+        }
+    }
+
+    @Test
+    void rejectedRecordsLeaveNothingBehind() throws IOException {
+        try (LogStore store = new LogStore(directory)) {
+            store.append(5, "alice", "first");
+            assertThrows(NullPointerException.class, () -> store.append(6, null, "no user"));
+            assertThrows(NullPointerException.class, () -> store.append(6, "alice", null));
+            assertThrows(IllegalArgumentException.class, () -> store.append(4, "alice", "too early"));
+            assertEquals(5, store.lastTime());
+            store.append(5, "alice", "second");
+        }
+        try (LogStore store = new LogStore(directory)) {
+            assertEquals(List.of("5 [alice] first", "5 [alice] second"), lines(store.query(null, 0, 10)));
+        }
+    }
+
+    @Test
+    void leftoverIndexTempFilesAreRemoved() throws IOException {
+        try (LogStore store = new LogStore(directory)) {
+            store.append(1, "alice", "kept");
+        }
+        Path temp = directory.resolve("segment-000000.idx.tmp"); // killed in the middle of writeIndex
+        Files.write(temp, new byte[]{1, 2, 3});
+
+        try (LogStore store = new LogStore(directory)) {
+            assertTrue(Files.notExists(temp));
+            assertEquals(List.of("1 [alice] kept"), lines(store.query(null, 0, 10)));
+            store.append(2, "alice", "next");
+        }
+        assertTrue(Files.exists(directory.resolve("segment-000001.log")));
+    }
+
+    @Test
+    void fileLogFlushMakesRecordsSurviveAKill() throws IOException {
+        LogStore killed = new LogStore(directory);
+        Application app = new Application(List.of(new MeteredLogger(new FileLog(killed))));
+        app.userProcess("alice");
+        app.userProcess("bob");
+        app.flush(); // no close(): the process is killed after this
+
+        try (LogStore store = new LogStore(directory)) {
+            assertEquals(1, store.query("alice", 0, Long.MAX_VALUE).size());
+            assertEquals(1, store.query("bob", 0, Long.MAX_VALUE).size());
+        }
+    }
+
+    private static List<String> lines(List<LogStore.LogRecord> records) {
+        List<String> lines = new ArrayList<>();
+        for (LogStore.LogRecord record : records) lines.add(record.toString());
+        return lines;
+    }
+}
@@ -0,0 +1,78 @@
+package Decorative_Pattern.With;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.io.TempDir;
+
+// Parsing of order lines and what callers see when a stage dies
+class OrderPipelineTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void emptyToppingsAreInvalid() throws IOException {
+        String[] lines = {"", "milk", "milk,sugar", "milk,", ",milk", "milk,,sugar", ","};
+        int[] costs = {10, cost(new MileCoffee(new SimpleCoffee())),
+                cost(new SugarDecorator(new MileCoffee(new SimpleCoffee()))), -1, -1, -1, -1};
+        Path ledger = directory.resolve("orders.ledger");
+        try (OrderPipeline pipeline = new OrderPipeline(ledger)) {
+            for (String line : lines) pipeline.submit(line);
+        }
+
+        ByteBuffer records = ByteBuffer.wrap(Files.readAllBytes(ledger));
+        assertEquals(lines.length * 16, records.remaining());
+        for (int i = 0; i < lines.length; i++) {
+            assertEquals(i, records.getLong());
+            records.getInt(); // toppings
+            assertEquals(costs[i], records.getInt(), "cost of \"" + lines[i] + "\"");
+        }
+    }
+
+    @Test
+    @Timeout(30)
+    void failedStageIsReportedInsteadOfWaitingForever() throws IOException {
+        Path full = Path.of("/dev/full"); // every write fails with "No space left on device"
+        assumeTrue(Files.isWritable(full));
+        OrderPipeline pipeline = new OrderPipeline(full);
+
+        IllegalStateException failed = assertThrows(IllegalStateException.class, () -> {
+            for (int i = 0; i < 100_000; i++) pipeline.submit("milk");
+            pipeline.awaitPersisted();
+        });
+        assertTrue(failed.getCause().getCause() instanceof UncheckedIOException, String.valueOf(failed.getCause()));
+        assertThrows(IllegalStateException.class, () -> pipeline.submit("milk"));
+        assertThrows(IllegalStateException.class, pipeline::awaitPersisted);
+        assertThrows(IllegalStateException.class, pipeline::close);
+    }
+
+    @Test
+    @Timeout(30)
+    void closedPipelineRejectsCalls() throws IOException {
+        Path ledger = directory.resolve("orders.ledger");
+        OrderPipeline pipeline = new OrderPipeline(ledger);
+        pipeline.submit("milk");
+        pipeline.close();
+
+        assertEquals(16, Files.size(ledger));
+        assertThrows(IllegalStateException.class, () -> pipeline.submit("milk"));
+        assertThrows(IllegalStateException.class, pipeline::awaitPersisted);
+        pipeline.close(); // closing twice is harmless
+        assertEquals(1, pipeline.persisted());
+    }
+
+    private static int cost(Coffee coffee) {
+        return coffee.getCost();
+    }
+}
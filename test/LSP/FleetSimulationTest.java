@@ -0,0 +1,38 @@
+package LSP;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+// Id checks and fuel of the structure-of-arrays fleet
+class FleetSimulationTest {
+
+    @Test
+    void idsNotReturnedByAddAreRejected() {
+        FleetSimulation fleet = new FleetSimulation();
+        int car = fleet.add(new Car2());
+        fleet.setPower(car, 1.0);
+
+        // the backing arrays have room for 16, ids past size() must not alias vehicle 0
+        assertThrows(IndexOutOfBoundsException.class, () -> fleet.setPower(5, 0.0));
+        assertThrows(IndexOutOfBoundsException.class, () -> fleet.position(7));
+        assertThrows(IndexOutOfBoundsException.class, () -> fleet.speed(-1));
+        assertThrows(IndexOutOfBoundsException.class, () -> fleet.fuel(1));
+
+        fleet.tick(1.0);
+        assertTrue(fleet.position(car) > 0, "car did not move");
+    }
+
+    @Test
+    void engineVehiclesAddedWithoutFuelGetAFullTank() {
+        FleetSimulation fleet = new FleetSimulation();
+        int car = fleet.add(new Car2());
+        int bicycle = fleet.add(new Bicycle2());
+        assertEquals(FleetSimulation.DEFAULT_FUEL, fleet.fuel(car));
+        assertEquals(0.0, fleet.fuel(bicycle));
+        assertThrows(IllegalArgumentException.class, () -> fleet.add(new Car2(), -1));
+        assertEquals(2, fleet.size());
+    }
+}
@@ -0,0 +1,125 @@
+package Observer_Pattern.With;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+// Sparse index seek, reopen, and when the header on disk moves
+class ReadingJournalTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void seekFindsFirstReadingAtOrAfterTime() throws IOException {
+        int readings = ReadingJournal.INDEX_STRIDE * 3 + 17; // several index blocks plus a partial one
+        try (ReadingJournal journal = new ReadingJournal(directory.resolve("j"), 1, 0)) {
+            for (int i = 0; i < readings; i++) journal.append(10L * (i / 2), i); // every time twice
+
+            assertEquals(0, journal.seek(Long.MIN_VALUE));
+            assertEquals(0, journal.seek(0));
+            assertEquals(2, journal.seek(1));
+            assertEquals(2, journal.seek(10));
+            long stride = ReadingJournal.INDEX_STRIDE;
+            assertEquals(stride, journal.seek(10L * (stride / 2)));            // first reading of a block
+            assertEquals(stride - 2, journal.seek(10L * (stride / 2 - 1)));    // end of the block before
+            assertEquals(stride, journal.seek(10L * (stride / 2) - 1));        // between the two
+            assertEquals(readings - 1, journal.seek(10L * ((readings - 1) / 2)));
+            assertEquals(readings, journal.seek(Long.MAX_VALUE));
+            for (long seq = 0; seq < readings; seq += 997) {
+                assertEquals(seq - seq % 2, journal.seek(journal.time(seq)));
+            }
+        }
+    }
+
+    @Test
+    void reopenRebuildsIndexAndKeepsAppending() throws IOException {
+        Path file = directory.resolve("j");
+        int readings = ReadingJournal.INDEX_STRIDE * 2 + 5;
+        try (ReadingJournal journal = new ReadingJournal(file, 16, 1000)) {
+            for (int i = 0; i < readings; i++) journal.append(i, i / 10.0);
+        }
+        try (ReadingJournal journal = new ReadingJournal(file, 16, 1000)) {
+            assertEquals(readings, journal.size());
+            assertEquals(ReadingJournal.INDEX_STRIDE + 1, journal.seek(ReadingJournal.INDEX_STRIDE + 1));
+            assertEquals(readings - 1, journal.time(readings - 1));
+            assertThrows(IllegalArgumentException.class, () -> journal.append(0, 1.0));
+            journal.append(readings, 99.0);
+        }
+        try (ReadingJournal journal = new ReadingJournal(file, 16, 1000)) {
+            assertEquals(readings + 1, journal.size());
+            List<Double> replayed = new ArrayList<>();
+            journal.replayFrom(readings - 1, replayed::add);
+            assertEquals(List.of((readings - 1) / 10.0, 99.0), replayed);
+        }
+    }
+
+    @Test
+    void headerOnlyCountsSyncedReadings() throws IOException {
+        Path file = directory.resolve("j");
+        ReadingJournal journal = new ReadingJournal(file, 16, 3);
+        journal.append(1, 1.0);
+        journal.append(2, 2.0);
+        assertEquals(0, headerOnDisk(file));
+        journal.append(3, 3.0);
+        assertEquals(3, headerOnDisk(file));
+        journal.append(4, 4.0);
+        assertEquals(3, headerOnDisk(file));
+
+        // killed without close(): the unsynced reading is not in the journal
+        try (ReadingJournal reopened = new ReadingJournal(file, 16, 3)) {
+            assertEquals(3, reopened.size());
+        }
+        journal.flush();
+        assertEquals(4, headerOnDisk(file));
+        journal.close();
+    }
+
+    @Test
+    void syncEveryZeroMovesHeaderOnEveryAppend() throws IOException {
+        Path file = directory.resolve("j");
+        try (ReadingJournal journal = new ReadingJournal(file, 1, 0)) {
+            for (int i = 1; i <= 40; i++) { // grows the mapping from 1 reading
+                journal.append(i, i);
+                assertEquals(i, headerOnDisk(file));
+            }
+        }
+    }
+
+    @Test
+    void invalidSettingsAreRejected() {
+        Path file = directory.resolve("j");
+        assertThrows(IllegalArgumentException.class, () -> new ReadingJournal(file, 0, 1));
+        assertThrows(IllegalArgumentException.class, () -> new ReadingJournal(file, 16, -1));
+    }
+
+    @Test
+    void rejectedReadingLeavesStationUnchanged() throws IOException {
+        try (ReadingJournal journal = new ReadingJournal(directory.resolve("j"), 16, 1)) {
+            JournaledWeatherStation station = new JournaledWeatherStation(20.0, journal);
+            List<Double> seen = new ArrayList<>();
+            station.addObserver(seen::add);
+            station.publish(2000, 21.0);
+
+            assertThrows(IllegalArgumentException.class, () -> station.publish(1000, 30.0));
+            assertEquals(21.0, station.temperature);
+            assertEquals(List.of(21.0), seen);
+            assertEquals(1, journal.size());
+        }
+    }
+
+    private static long headerOnDisk(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(file))) {
+            return in.readLong();
+        }
+    }
+}
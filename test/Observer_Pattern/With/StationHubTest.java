@@ -0,0 +1,97 @@
+package Observer_Pattern.With;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+// Failure isolation, calls around close(), and the primitive station table
+class StationHubTest {
+
+    @Test
+    void throwingObserverDoesNotStopOthers() throws InterruptedException {
+        RuntimeException broken = new IllegalStateException("broken display");
+        StationHub.CountingDisplay before = new StationHub.CountingDisplay();
+        StationHub.CountingDisplay after = new StationHub.CountingDisplay();
+        try (StationHub hub = new StationHub(2)) {
+            hub.subscribe(7, before);
+            hub.subscribe(7, temperature -> { throw broken; });
+            hub.subscribe(7, after);
+            for (int i = 0; i < 5; i++) hub.publish(7, 20 + i);
+            hub.flush();
+
+            assertEquals(5, before.updates);
+            assertEquals(5, after.updates);
+            assertEquals(5, hub.failures());
+            assertSame(broken, hub.lastFailure());
+            assertEquals(5, hub.readingsApplied());
+        }
+    }
+
+    @Test
+    void callsAfterCloseAreRejected() throws InterruptedException {
+        StationHub hub = new StationHub(2);
+        StationHub.CountingDisplay display = new StationHub.CountingDisplay();
+        hub.subscribe(1, display);
+        hub.publish(1, 20);
+        hub.close();
+
+        assertEquals(1, display.updates); // queued before close(), still applied
+        assertThrows(IllegalStateException.class, () -> hub.publish(1, 21));
+        assertThrows(IllegalStateException.class, () -> hub.subscribe(2, display));
+        assertThrows(IllegalStateException.class, () -> hub.unsubscribe(1, display));
+        assertThrows(IllegalStateException.class, hub::flush);
+        assertEquals(1, hub.readingsApplied());
+    }
+
+    @Test
+    @Timeout(60)
+    void publishRacingCloseIsAppliedOrRejected() throws InterruptedException {
+        for (int round = 0; round < 200; round++) {
+            StationHub hub = new StationHub(2);
+            AtomicLong accepted = new AtomicLong();
+            Thread publisher = new Thread(() -> {
+                for (long id = 0; ; id++) {
+                    try {
+                        hub.publish(id, 20);
+                    } catch (IllegalStateException closed) {
+                        return;
+                    }
+                    accepted.incrementAndGet();
+                }
+            });
+            publisher.start();
+            Thread.sleep(0, 100_000);
+            hub.close();
+            publisher.join();
+            assertEquals(accepted.get(), hub.readingsApplied());
+        }
+    }
+
+    @Test
+    void unknownStationIsNotCreatedByUnsubscribe() throws InterruptedException {
+        try (StationHub hub = new StationHub(2)) {
+            hub.unsubscribe(42, new StationHub.CountingDisplay());
+            hub.flush();
+            assertEquals(0, hub.stationCount());
+        }
+    }
+
+    @Test
+    void stationTableHandlesAnyIdAndGrows() {
+        StationTable table = new StationTable();
+        long[] ids = {0, -1, 1, Long.MIN_VALUE, Long.MAX_VALUE, 1L << 40, -128, 128};
+        for (long id : ids) table.put(id, new WeatherStation(id));
+        for (int i = 0; i < 10_000; i++) table.put(1_000_000L + i * 64L, new WeatherStation(i)); // same low bits
+
+        assertEquals(ids.length + 10_000, table.size);
+        for (long id : ids) assertEquals((double) id, table.get(id).temperature);
+        for (int i = 0; i < 10_000; i++) assertEquals((double) i, table.get(1_000_000L + i * 64L).temperature);
+        assertEquals(null, table.get(2));
+        assertEquals(null, table.get(1_000_001L));
+    }
+}
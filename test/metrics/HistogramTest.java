@@ -0,0 +1,82 @@
+package metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+// Bucket math, stripe merging, and the exact max kept by Timer
+class HistogramTest {
+
+    @Test
+    void valueOfIsTheLowestValueOfItsBucket() {
+        int last = Histogram.index(Long.MAX_VALUE);
+        for (int i = 0; i <= last; i++) {
+            long low = Histogram.valueOf(i);
+            assertEquals(i, Histogram.index(low));
+            if (low > 0) assertEquals(i - 1, Histogram.index(low - 1));
+        }
+    }
+
+    @Test
+    void indexIsWithinSixPercent() {
+        long[] edges = {0, 1, 15, 16, 17, 31, 32, 33, 1000, 1 << 20, (1L << 40) + 12345, Long.MAX_VALUE};
+        SplittableRandom random = new SplittableRandom(42);
+        for (int n = 0; n < 100_000 + edges.length; n++) {
+            long value = n < edges.length ? edges[n] : random.nextLong(Long.MAX_VALUE) >>> random.nextInt(63);
+            long low = Histogram.valueOf(Histogram.index(value));
+            assertTrue(low <= value && value - low <= value / Histogram.SUB_BUCKETS, value + " -> " + low);
+        }
+        assertTrue(Histogram.index(Long.MAX_VALUE) < Histogram.BUCKETS);
+    }
+
+    @Test
+    void stripesRecordedByManyThreadsAddUp() throws InterruptedException {
+        Histogram histogram = new Histogram();
+        int threads = Histogram.STRIPES * 2, perThread = 50_000;
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            long value = (t + 1) * 1000L;
+            workers[t] = new Thread(() -> {
+                for (int i = 0; i < perThread; i++) histogram.record(value);
+            });
+            workers[t].start();
+        }
+        for (Thread worker : workers) worker.join();
+
+        long[] merged = histogram.merged();
+        long[] expected = new long[Histogram.BUCKETS];
+        for (int t = 0; t < threads; t++) expected[Histogram.index((t + 1) * 1000L)] += perThread;
+        for (int i = 0; i < Histogram.BUCKETS; i++) assertEquals(expected[i], merged[i]);
+        assertEquals((long) threads * perThread, histogram.count());
+        assertEquals(Histogram.valueOf(Histogram.index(1000)), histogram.percentile(0));
+        assertEquals(Histogram.valueOf(Histogram.index(threads * 1000L)), histogram.percentile(100));
+
+        histogram.reset();
+        assertEquals(0, histogram.count());
+        assertEquals(0, histogram.percentile(99));
+    }
+
+    @Test
+    void negativeValuesCountAsZero() {
+        Histogram histogram = new Histogram();
+        histogram.record(-5);
+        assertEquals(1, histogram.merged()[0]);
+    }
+
+    @Test
+    void timerMaxIsExact() {
+        Timer timer = new Timer("test.max");
+        timer.record(1000);
+        timer.record(1_000_000_007);
+        timer.record(50);
+
+        assertEquals(1_000_000_007, timer.maxNanos());
+        assertTrue(timer.histogram().percentile(100) < 1_000_000_007);
+        assertTrue(timer.toString().endsWith(" maxNs=1000000007"), timer.toString());
+        timer.reset();
+        assertEquals(0, timer.maxNanos());
+    }
+}